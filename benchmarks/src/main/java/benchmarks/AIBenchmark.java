@@ -0,0 +1,72 @@
+package benchmarks;
+
+import controller.AIDifficulty;
+import controller.AIPlayer;
+import controller.Game;
+import model.board.Board;
+import model.board.Position;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Avaliação estática e escolha de lance completa em cada nível. O Difícil
+ * roda com 1 thread e profundidade fixa, e a TT é limpa antes de cada
+ * chamada, para que toda medição faça a mesma busca.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AIBenchmark {
+    static final int HARD_DEPTH = 4;
+
+    @State(Scope.Thread)
+    public static class Eval {
+        @Param({"middlegame", "kiwipete", "rook-endgame", "rook-pawn-endgame"})
+        public String position;
+
+        Board board;
+
+        @Setup
+        public void setup() {
+            board = Positions.game(position).board();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Player {
+        @Param({"middlegame", "kiwipete", "rook-endgame", "rook-pawn-endgame"})
+        public String position;
+
+        @Param({"EASY", "MEDIUM", "HARD"})
+        public AIDifficulty difficulty;
+
+        Game game;
+        AIPlayer ai;
+
+        @Setup(Level.Trial)
+        public void setup() {
+            game = Positions.game(position);
+            ai = new AIPlayer(difficulty);
+            ai.setMaxDepth(HARD_DEPTH);
+            ai.setMoveTime(60_000); // quem limita é a profundidade
+        }
+
+        @Setup(Level.Invocation)
+        public void freshSearch() {
+            ai.newGame();
+        }
+    }
+
+    @Benchmark
+    public int evaluateBoard(Eval s) {
+        return AIPlayer.evaluateBoard(s.board);
+    }
+
+    @Benchmark
+    public Position[] findBestMove(Player s) {
+        return s.ai.findBestMove(s.game);
+    }
+}
@@ -0,0 +1,36 @@
+package benchmarks;
+
+import model.board.Board;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Board.copy (usado pela IA a cada lance) e Board.pieces(cor). */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class BoardBenchmark {
+    @Param({"middlegame", "kiwipete", "rook-endgame", "rook-pawn-endgame"})
+    public String position;
+
+    private Board board;
+
+    @Setup
+    public void setup() {
+        board = Positions.game(position).board();
+    }
+
+    @Benchmark
+    public Board copy() {
+        return board.copy();
+    }
+
+    @Benchmark
+    public List<?> pieces() {
+        return board.pieces(board.whiteToMove());
+    }
+}
@@ -0,0 +1,43 @@
+package benchmarks;
+
+import controller.Game;
+import model.board.Position;
+import model.pieces.Piece;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caminhos da interface: legalMovesFrom para cada peça do lado a jogar (o
+ * que a GUI faz ao selecionar peças) e inCheck do lado a jogar.
+ */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class GameBenchmark {
+    @Param({"middlegame", "kiwipete", "rook-endgame", "rook-pawn-endgame"})
+    public String position;
+
+    private Game game;
+    private Position[] from;
+
+    @Setup
+    public void setup() {
+        game = Positions.game(position);
+        from = game.board().pieces(game.whiteToMove()).stream().map(Piece::getPosition).toArray(Position[]::new);
+    }
+
+    @Benchmark
+    public void legalMovesFrom(Blackhole bh) {
+        for (Position p : from) bh.consume(game.legalMovesFrom(p));
+    }
+
+    @Benchmark
+    public boolean inCheck() {
+        return game.inCheck(game.whiteToMove());
+    }
+}
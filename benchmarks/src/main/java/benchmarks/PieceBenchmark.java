@@ -0,0 +1,45 @@
+package benchmarks;
+
+import controller.Game;
+import model.pieces.Piece;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/** Piece.getPossibleMoves por tipo de peça: todas as peças do tipo, das duas cores. */
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PieceBenchmark {
+    @Param({"middlegame", "kiwipete", "rook-endgame", "rook-pawn-endgame"})
+    public String position;
+
+    @Param({"PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING"})
+    public String type;
+
+    private Piece[] pieces;
+
+    @Setup
+    public void setup() {
+        Game game = Positions.game(position);
+        int t = List.of("PAWN", "KNIGHT", "BISHOP", "ROOK", "QUEEN", "KING").indexOf(type);
+        List<Piece> list = new ArrayList<>();
+        for (boolean white : new boolean[]{true, false}) {
+            for (Piece p : game.board().pieces(white)) {
+                if (p.getType() == t) list.add(p);
+            }
+        }
+        pieces = list.toArray(new Piece[0]);
+    }
+
+    @Benchmark
+    public void getPossibleMoves(Blackhole bh) {
+        for (Piece p : pieces) bh.consume(p.getPossibleMoves());
+    }
+}
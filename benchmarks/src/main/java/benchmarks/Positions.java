@@ -0,0 +1,24 @@
+package benchmarks;
+
+import controller.Game;
+
+import java.util.Map;
+
+/**
+ * Posições fixas usadas por todos os benchmarks: duas de meio-jogo e duas de
+ * final, em FEN. Os nomes são os valores do @Param "position".
+ */
+final class Positions {
+    static final Map<String, String> FEN = Map.of(
+            "middlegame", "r1bq1rk1/pp2bppp/2n1pn2/3p4/2PP4/2N2N2/PP2BPPP/R1BQ1RK1 w - - 0 9",
+            "kiwipete", "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+            "rook-endgame", "8/5pk1/6p1/3R4/1r6/6P1/5PK1/8 w - - 0 1",
+            "rook-pawn-endgame", "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1");
+
+    private Positions() { }
+
+    /** Partida nova já na posição de nome name. */
+    static Game game(String name) {
+        return Game.fromFen(FEN.get(name));
+    }
+}
@@ -1,7 +1,7 @@
-package controller;
-
-public enum AIDifficulty {
-    EASY,
-    MEDIUM,
-    HARD
+package controller;
+
+public enum AIDifficulty {
+    EASY,
+    MEDIUM,
+    HARD
 }
\ No newline at end of file
@@ -1,167 +1,477 @@
-package controller;
-
-import model.board.Board;
-import model.board.Position;
-import model.pieces.Piece;
-import java.util.List;
-import java.util.Random;
-
-public class AIPlayer {
-
-    private final AIDifficulty difficulty;
-    private static final int MINIMAX_DEPTH = 3; // Profundidade para o nível Difícil
-
-    public AIPlayer(AIDifficulty difficulty) {
-        this.difficulty = difficulty;
-    }
-
-    public Position[] findBestMove(Game game) {
-        return switch (difficulty) {
-            case EASY -> findRandomMove(game);
-            case MEDIUM -> findBestMoveOneStep(game);
-            case HARD -> findBestMoveMinimax(game);
-        };
-    }
-
-    // NÍVEL FÁCIL: Escolhe um movimento aleatório 
-    private Position[] findRandomMove(Game game) {
-        List<Piece> aiPieces = game.board().pieces(false);
-        Random rand = new Random();
-        
-        while (!aiPieces.isEmpty()) {
-            Piece randomPiece = aiPieces.remove(rand.nextInt(aiPieces.size()));
-            List<Position> legalMoves = game.legalMovesFrom(randomPiece.getPosition());
-            if (!legalMoves.isEmpty()) {
-                Position from = randomPiece.getPosition();
-                Position to = legalMoves.get(rand.nextInt(legalMoves.size()));
-                return new Position[]{from, to};
-            }
-        }
-        return new Position[]{null, null}; // Sem movimentos possíveis
-    }
-
-    // NÍVEL MÉDIO: Avaliação de 1 jogada à frente (código que já tínhamos)
-    private Position[] findBestMoveOneStep(Game game) {
-        Position bestMoveFrom = null;
-        Position bestMoveTo = null;
-        int bestValue = Integer.MAX_VALUE;
-        Board board = game.board();
-        List<Piece> aiPieces = board.pieces(false);
-
-        for (Piece piece : aiPieces) {
-            Position from = piece.getPosition();
-            List<Position> legalMoves = game.legalMovesFrom(from);
-            for (Position to : legalMoves) {
-                Board simulatedBoard = board.copy();
-                Piece movingPiece = simulatedBoard.get(from);
-                if (movingPiece != null) {
-                    simulatedBoard.set(to, movingPiece);
-                    simulatedBoard.set(from, null);
-                }
-                int boardValue = evaluateBoard(simulatedBoard);
-                if (boardValue < bestValue) {
-                    bestValue = boardValue;
-                    bestMoveFrom = from;
-                    bestMoveTo = to;
-                }
-            }
-        }
-        return new Position[]{bestMoveFrom, bestMoveTo};
-    }
-
-    // NÍVEL DIFÍCIL: Algoritmo Minimax [cite: 379]
-    private Position[] findBestMoveMinimax(Game game) {
-        Position bestMoveFrom = null;
-        Position bestMoveTo = null;
-        int bestValue = Integer.MAX_VALUE;
-        Board board = game.board();
-        List<Piece> aiPieces = board.pieces(false);
-
-        for (Piece piece : aiPieces) {
-            Position from = piece.getPosition();
-            List<Position> legalMoves = game.legalMovesFrom(from);
-            for (Position to : legalMoves) {
-                Board simulatedBoard = board.copy();
-                Piece movingPiece = simulatedBoard.get(from);
-                if (movingPiece != null) {
-                    simulatedBoard.set(to, movingPiece);
-                    simulatedBoard.set(from, null);
-                }
-                // Chama o minimax para o turno do oponente (maximizando)
-                int boardValue = minimax(simulatedBoard, MINIMAX_DEPTH - 1, true, game);
-
-                if (boardValue < bestValue) {
-                    bestValue = boardValue;
-                    bestMoveFrom = from;
-                    bestMoveTo = to;
-                }
-            }
-        }
-        return new Position[]{bestMoveFrom, bestMoveTo};
-    }
-
-    private int minimax(Board board, int depth, boolean isMaximizingPlayer, Game game) {
-        if (depth == 0) {
-            return evaluateBoard(board);
-        }
-
-        List<Piece> pieces = board.pieces(isMaximizingPlayer);
-        int bestValue;
-
-        if (isMaximizingPlayer) { // Turno do Jogador (Brancas) - quer maximizar a pontuação
-            bestValue = Integer.MIN_VALUE;
-            for (Piece piece : pieces) {
-                for (Position to : game.legalMovesFrom(piece.getPosition())) {
-                    Board childBoard = board.copy();
-                    Piece p = childBoard.get(piece.getPosition());
-                    if (p != null) {
-                        childBoard.set(to, p);
-                        childBoard.set(piece.getPosition(), null);
-                    }
-                    bestValue = Math.max(bestValue, minimax(childBoard, depth - 1, false, game));
-                }
-            }
-        } else { // Turno da IA (Pretas) - quer minimizar a pontuação
-            bestValue = Integer.MAX_VALUE;
-            for (Piece piece : pieces) {
-                 for (Position to : game.legalMovesFrom(piece.getPosition())) {
-                    Board childBoard = board.copy();
-                     Piece p = childBoard.get(piece.getPosition());
-                    if (p != null) {
-                        childBoard.set(to, p);
-                        childBoard.set(piece.getPosition(), null);
-                    }
-                    bestValue = Math.min(bestValue, minimax(childBoard, depth - 1, true, game));
-                }
-            }
-        }
-        return bestValue;
-    }
-
-    // --- FUNÇÕES DE AVALIAÇÃO (comuns a Médio e Difícil) ---
-    private int evaluateBoard(Board board) {
-        int totalScore = 0;
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece p = board.get(new Position(row, col));
-                if (p != null) {
-                    totalScore += getPieceValue(p);
-                }
-            }
-        }
-        return totalScore;
-    }
-
-    private int getPieceValue(Piece piece) {
-        int value = switch (piece.getSymbol().toUpperCase()) {
-            case "P" -> 100;
-            case "N" -> 320;
-            case "B" -> 330;
-            case "R" -> 500;
-            case "Q" -> 900;
-            case "K" -> 20000;
-            default -> 0;
-        };
-        return piece.isWhite() ? value : -value;
-    }
+package controller;
+
+import model.board.Board;
+import model.board.MoveList;
+import model.board.Moves;
+import model.board.Position;
+import model.board.Square;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+
+public class AIPlayer {
+
+    private final AIDifficulty difficulty;
+    public static final int DEFAULT_HASH_MB = 16;
+    public static final long DEFAULT_MOVE_TIME_MS = 1000; // sem relógio na partida
+
+    // Limites do nível Difícil: a busca para no que vier primeiro
+    private int maxDepth = Search.MAX_PLY;
+    private long moveTimeMillis = DEFAULT_MOVE_TIME_MS;
+
+    // Buffer de lances da raiz para os níveis Fácil e Médio
+    private final MoveList rootMoves = new MoveList();
+    // Busca alfa-beta e tabela de transposição (só no nível Difícil)
+    private final TranspositionTable tt;
+    private final Search search;
+    // Lazy SMP: buscas auxiliares na mesma posição, compartilhando a TT
+    private Search[] helpers = new Search[0];
+    private ExecutorService helperPool;
+    // Estatística dos níveis Fácil e Médio (o Difícil lê direto da busca)
+    private volatile SearchStats simpleStats = SearchStats.EMPTY;
+    private volatile Search statsSource;
+    // Lance tirado das tabelas de finais: o valor exato delas no lugar do da busca (null = não)
+    private volatile SearchStats tablebaseStats;
+
+    // Uma busca por vez: Search, rootMoves e as auxiliares são do AIPlayer.
+    // É uma trava à parte para que cancelar (em this) não espere a busca acabar.
+    private final Object searchLock = new Object();
+    // Livro de aberturas (opcional): nos níveis Médio e Difícil, joga do livro enquanto houver
+    private volatile OpeningBook book;
+    private volatile Tablebases tablebases;
+    private final Random bookRandom = new Random();
+
+    // Buscas assíncronas: uma thread dedicada
+    private ExecutorService searchPool;
+    private SearchHandle current;
+
+    // Ponder: no tempo do adversário, busca a posição depois da resposta esperada
+    private static final long PONDER_BUDGET_MS = 24L * 60 * 60 * 1000; // "sem fim": para por stop()
+    private static final long ANALYSIS_BUDGET_MS = PONDER_BUDGET_MS;
+    private final Object ponderLock = new Object();
+    private final Search ponderSearch;
+    private volatile boolean ponderEnabled;
+    private ExecutorService ponderPool;
+    private Future<Integer> ponderFuture;
+    private long ponderKey;   // posição do palpite (0 = sem palpite, só aquecendo a TT)
+    private long ponderStart; // System.nanoTime() do início do ponder
+
+    public AIPlayer(AIDifficulty difficulty) {
+        this(difficulty, DEFAULT_HASH_MB);
+    }
+
+    /** @param hashMb tamanho da tabela de transposição em MB */
+    public AIPlayer(AIDifficulty difficulty, int hashMb) {
+        this.difficulty = difficulty;
+        this.tt = difficulty == AIDifficulty.HARD ? new TranspositionTable(hashMb) : null;
+        this.search = tt != null ? new Search(tt) : null;
+        this.ponderSearch = tt != null ? new Search(tt) : null;
+        this.statsSource = search;
+    }
+
+    /** Profundidade máxima da busca (útil para resultados reprodutíveis). */
+    public void setMaxDepth(int maxDepth) { this.maxDepth = Math.max(1, maxDepth); }
+
+    /**
+     * Número de threads do nível Difícil (1 = busca única e determinística,
+     * o padrão). Com n > 1, n - 1 auxiliares buscam a mesma posição em
+     * paralelo e enchem a TT compartilhada para a thread principal.
+     */
+    public void setThreads(int threads) {
+        if (search == null) return;
+        synchronized (searchLock) {
+            int n = Math.max(1, threads) - 1;
+            if (n == helpers.length) return;
+            if (helperPool != null) helperPool.shutdownNow();
+            helpers = new Search[n];
+            for (int i = 0; i < n; i++) {
+                helpers[i] = new Search(tt);
+                helpers[i].setTablebases(tablebases);
+            }
+            helperPool = n == 0 ? null : Executors.newFixedThreadPool(n, r -> {
+                Thread t = new Thread(r, "ai-helper");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+    }
+
+    public int threads() { return helpers.length + 1; }
+
+    /** Esquece o que foi aprendido na partida anterior (tabela de transposição). */
+    public void newGame() {
+        stopPondering();
+        if (tt != null) tt.clear();
+    }
+
+    /**
+     * Estatísticas da busca em andamento ou da última terminada: nós, nós/s,
+     * profundidade, fator de ramificação, taxa de cortes, acertos na TT e tempo.
+     * Pode ser chamado de qualquer thread enquanto findBestMove roda.
+     */
+    public SearchStats searchStats() {
+        SearchStats fixed = tablebaseStats;
+        if (fixed != null) return fixed;
+        if (search == null) return simpleStats;
+        Search source = statsSource;
+        if (source == ponderSearch) return source.stats();
+        long helperNodes = 0;
+        for (Search h : helpers) helperNodes += h.stats().nodes();
+        SearchStats main = source.stats();
+        return helperNodes == 0 ? main : main.plusNodes(helperNodes);
+    }
+
+    /** Livro de aberturas a consultar antes de buscar (null = nenhum). */
+    public void setOpeningBook(OpeningBook book) { this.book = book; }
+
+    /**
+     * Tabelas de finais (null = nenhuma). Nos níveis Médio e Difícil, uma
+     * posição coberta é jogada direto pela tabela; no Difícil a busca também
+     * as consulta nas folhas.
+     */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+        if (search == null) return;
+        synchronized (searchLock) {
+            search.setTablebases(tablebases);
+            for (Search h : helpers) h.setTablebases(tablebases);
+        }
+        ponderSearch.setTablebases(tablebases);
+    }
+
+    /** Tempo por lance quando a partida não tem relógio. */
+    public void setMoveTime(long millis) { this.moveTimeMillis = Math.max(1, millis); }
+
+    /**
+     * Orçamento de tempo para o lance atual: com relógio, uma fração do tempo
+     * restante mais a maior parte do incremento, sem arriscar estourar.
+     */
+    long moveBudgetMillis(Game game) {
+        ChessClock clock = game.clock();
+        if (clock == null) return moveTimeMillis;
+        long left = clock.remainingMillis(game.whiteToMove());
+        long budget = left / 30 + clock.incrementMillis() * 3 / 4;
+        return Math.max(10, Math.min(budget, left - 50));
+    }
+
+    public Position[] findBestMove(Game game) {
+        return positions(findBestMoveEncoded(game));
+    }
+
+    /**
+     * Como findBestMove, mas devolve o lance codificado (ver Moves), com a peça
+     * de promoção que a IA escolheu (o livro e as tabelas de finais às vezes
+     * sub-promovem); Moves.NONE se não houver lance.
+     */
+    public int findBestMoveEncoded(Game game) {
+        // A busca aplica/desfaz lances no tabuleiro; trabalha numa cópia
+        // para não mexer no tabuleiro que a interface está desenhando.
+        return bestMove(game.copy(), moveBudgetMillis(game), CancellationToken.NONE);
+    }
+
+    // {de, para} de um lance codificado; {null, null} para Moves.NONE
+    static Position[] positions(int move) {
+        if (move == Moves.NONE) return new Position[]{null, null};
+        return new Position[]{Square.of(Moves.from(move)), Square.of(Moves.to(move))};
+    }
+
+    /**
+     * Como findBestMove, mas roda na thread de busca deste AIPlayer e volta
+     * na hora. A posição e o tempo são tomados agora, na thread de quem chama;
+     * uma busca anterior ainda em andamento é cancelada. O handle cancela a
+     * busca e diz se ela ainda vale para a partida (ver SearchHandle.isFor).
+     */
+    public synchronized SearchHandle findBestMoveAsync(Game game) {
+        if (current != null) current.cancel(true);
+        Game sim = game.copy();
+        long budget = moveBudgetMillis(game);
+        CancellationToken token = new CancellationToken();
+        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> bestMove(sim, budget, token), searchPool());
+        current = new SearchHandle(future, token, game.generation());
+        return current;
+    }
+
+    // Thread das buscas assíncronas, criada no primeiro uso (chamar com this travado)
+    private ExecutorService searchPool() {
+        if (searchPool == null) {
+            searchPool = Executors.newSingleThreadExecutor(r -> {
+                Thread t = new Thread(r, "ai-search");
+                t.setDaemon(true);
+                return t;
+            });
+        }
+        return searchPool;
+    }
+
+    /**
+     * Análise da posição de game (só no nível Difícil): busca sem prazo, as
+     * lines melhores linhas ao mesmo tempo (multi-PV), entregando a listener
+     * um AnalysisUpdate a cada profundidade completa, na thread da busca.
+     * Roda até o handle (ou cancelSearch) parar, ou até achar mate; como
+     * findBestMoveAsync, cancela a busca anterior e o ponder.
+     */
+    public synchronized SearchHandle analyze(Game game, int lines, Consumer<AnalysisUpdate> listener) {
+        if (search == null) throw new IllegalStateException("Análise só no nível Difícil");
+        if (current != null) current.cancel(true);
+        stopPondering();
+        Game sim = game.copy();
+        CancellationToken token = new CancellationToken();
+        CompletableFuture<Integer> future = CompletableFuture.supplyAsync(() -> {
+            synchronized (searchLock) {
+                if (token.isCancelled()) return Moves.NONE;
+                tablebaseStats = null;
+                statsSource = search;
+                search.setToken(token);
+                search.setMultiPv(lines, listener);
+                try {
+                    return search.search(sim, maxDepth, ANALYSIS_BUDGET_MS);
+                } finally {
+                    search.setMultiPv(1, null);
+                }
+            }
+        }, searchPool());
+        current = new SearchHandle(future, token, game.generation());
+        return current;
+    }
+
+    /** Cancela a busca assíncrona e o ponder em andamento, se houver. */
+    public synchronized void cancelSearch() {
+        if (current != null) current.cancel(true);
+        current = null;
+        stopPondering();
+    }
+
+    /** Cancela tudo e encerra as threads da IA (ex.: ao fechar a janela). */
+    public synchronized void shutdown() {
+        cancelSearch();
+        if (searchPool != null) searchPool.shutdownNow();
+        searchPool = null;
+        synchronized (ponderLock) {
+            if (ponderPool != null) ponderPool.shutdownNow();
+            ponderPool = null;
+        }
+        synchronized (searchLock) { // a busca cancelada sai em poucos milhares de nós
+            if (helperPool != null) helperPool.shutdownNow();
+            helperPool = null;
+            helpers = new Search[0];
+        }
+    }
+
+    private int bestMove(Game sim, long budget, CancellationToken token) {
+        synchronized (searchLock) {
+            return bestMoveLocked(sim, budget, token);
+        }
+    }
+
+    private int bestMoveLocked(Game sim, long budget, CancellationToken token) {
+        tablebaseStats = null;
+        if (token.isCancelled()) return Moves.NONE;
+        OpeningBook b = book;
+        if (b != null && difficulty != AIDifficulty.EASY) {
+            int move = b.pick(sim, bookRandom);
+            if (move != Moves.NONE) return move;
+        }
+        Tablebases tb = tablebases;
+        if (tb != null && difficulty != AIDifficulty.EASY) {
+            int move = tb.bestMove(sim.board());
+            if (move != Moves.NONE) {
+                tablebaseStats = new SearchStats(0, 0, 1, 0, 0, 0, tb.probe(sim.board()), new int[]{move}, false);
+                return move;
+            }
+        }
+        if (tt != null) tt.newSearch();
+        long start = System.nanoTime();
+        int move = switch (difficulty) {
+            case EASY -> findRandomMove(sim);
+            case MEDIUM -> findBestMoveOneStep(sim);
+            case HARD -> {
+                int hit = ponderHit(sim, budget, token);
+                if (hit != Moves.NONE) yield hit;
+                statsSource = search;
+                search.setToken(token);
+                yield helpers.length == 0 ? search.search(sim, maxDepth, budget) : searchParallel(sim, budget);
+            }
+        };
+        if (search == null) {
+            // Fácil e Médio olham só os lances da raiz: 1 ply, um nó por lance
+            simpleStats = new SearchStats(rootMoves.size(), (System.nanoTime() - start) / 1_000_000,
+                    1, 0, 0, 0, 0, new int[0], false);
+        }
+        return move; // Moves.NONE: sem movimentos possíveis
+    }
+
+    // NÍVEL FÁCIL: Escolhe um movimento aleatório 
+    private int findRandomMove(Game game) {
+        MoveList moves = rootMoves;
+        game.legalMoves(moves);
+        if (moves.isEmpty()) return Moves.NONE;
+        return moves.get(new Random().nextInt(moves.size()));
+    }
+
+    // NÍVEL MÉDIO: Avaliação de 1 jogada à frente (código que já tínhamos)
+    private int findBestMoveOneStep(Game game) {
+        int bestMove = Moves.NONE;
+        int bestValue = Integer.MAX_VALUE;
+        MoveList moves = rootMoves;
+        game.legalMoves(moves);
+        int sign = game.whiteToMove() ? -1 : 1; // avaliação é das brancas: menor = melhor para quem joga
+
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.get(i);
+            game.makeMove(move);
+            int boardValue = sign * evaluateBoard(game.board());
+            game.unmakeMove();
+            if (boardValue < bestValue) {
+                bestValue = boardValue;
+                bestMove = move;
+            }
+        }
+        return bestMove;
+    }
+
+    // NÍVEL DIFÍCIL: Minimax com poda alfa-beta, ver Search
+
+    // Lazy SMP: auxiliares começam em profundidades alternadas e param quando a principal termina
+    private int searchParallel(Game game, long budget) {
+        List<Future<Integer>> futures = new ArrayList<>(helpers.length);
+        for (int i = 0; i < helpers.length; i++) {
+            Search helper = helpers[i];
+            Game copy = game.copy();
+            int firstDepth = 1 + (i + 1) % 2;
+            helper.clearStop();
+            futures.add(helperPool.submit(() -> helper.search(copy, firstDepth, maxDepth, budget)));
+        }
+        search.clearStop();
+        int bestMove = search.search(game, maxDepth, budget);
+        int bestDepth = search.completedDepth();
+        for (Search helper : helpers) helper.stop();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                int move = futures.get(i).get();
+                // Uma auxiliar que completou uma iteração mais funda tem a melhor resposta
+                if (move != Moves.NONE && helpers[i].completedDepth() > bestDepth) {
+                    bestMove = move;
+                    bestDepth = helpers[i].completedDepth();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (ExecutionException e) {
+                e.printStackTrace();
+            }
+        }
+        return bestMove;
+    }
+
+    // --- PONDER (só no nível Difícil) ---
+
+    /** Liga/desliga o ponder. Desligar interrompe o que estiver em andamento. */
+    public void setPonder(boolean enabled) {
+        ponderEnabled = enabled && ponderSearch != null;
+        if (!ponderEnabled) stopPondering();
+    }
+
+    public boolean isPonder() { return ponderEnabled; }
+
+    /**
+     * Chamado logo depois do lance da IA, com o adversário a jogar: começa a
+     * buscar em segundo plano a posição depois da resposta esperada (o lance
+     * da TT). Se o palpite se confirmar, findBestMove aproveita essa busca e
+     * devolve o lance na hora ou quase; se errar, a busca é interrompida e a
+     * TT fica aquecida. Sem palpite, busca a posição do adversário mesmo,
+     * o que aquece a TT para todas as respostas.
+     */
+    public void ponder(Game game) {
+        if (!ponderEnabled || game.isGameOver()) return;
+        synchronized (ponderLock) {
+            cancelPonder();
+            Game sim = game.copy();
+            int guess = expectedReply(sim);
+            if (guess != Moves.NONE) sim.makeMove(guess);
+            ponderKey = guess != Moves.NONE ? sim.positionKey() : 0;
+            ponderStart = System.nanoTime();
+            if (ponderPool == null) {
+                ponderPool = Executors.newSingleThreadExecutor(r -> {
+                    Thread t = new Thread(r, "ai-ponder");
+                    t.setDaemon(true);
+                    return t;
+                });
+            }
+            tt.newSearch();
+            ponderSearch.clearStop();
+            ponderSearch.setToken(CancellationToken.NONE);
+            ponderFuture = ponderPool.submit(() -> ponderSearch.search(sim, maxDepth, PONDER_BUDGET_MS));
+        }
+    }
+
+    /** Interrompe o ponder em andamento, se houver (ex.: nova partida). */
+    public void stopPondering() {
+        synchronized (ponderLock) {
+            cancelPonder();
+        }
+    }
+
+    // Resposta esperada do adversário: o melhor lance guardado na TT para a posição dele
+    private int expectedReply(Game game) {
+        long entry = tt.probe(game.positionKey());
+        if (entry == 0) return Moves.NONE;
+        int move = TranspositionTable.move(entry);
+        MoveList moves = new MoveList();
+        game.legalMoves(moves);
+        return moves.contains(move) ? move : Moves.NONE;
+    }
+
+    /**
+     * Se o ponder estava pensando justamente nesta posição, dá a ele o prazo
+     * que uma busca normal iniciada no começo do ponder teria e devolve o seu
+     * lance (na hora, se esse prazo já passou). Se não, interrompe o ponder e
+     * devolve Moves.NONE para a busca normal rodar com a TT aquecida.
+     */
+    private int ponderHit(Game game, long budget, CancellationToken token) {
+        synchronized (ponderLock) {
+            if (ponderFuture == null) return Moves.NONE;
+            if (ponderKey == 0 || game.positionKey() != ponderKey) {
+                cancelPonder();
+                return Moves.NONE;
+            }
+            long end = ponderStart + budget * 1_000_000L;
+            if (System.nanoTime() >= end) ponderSearch.stop();
+            else ponderSearch.setDeadline(end);
+            statsSource = ponderSearch;
+            ponderSearch.setToken(token);
+            int move = awaitPonder();
+            ponderFuture = null;
+            return move;
+        }
+    }
+
+    private void cancelPonder() {
+        if (ponderFuture == null) return;
+        ponderSearch.stop();
+        awaitPonder();
+        ponderFuture = null;
+    }
+
+    private int awaitPonder() {
+        try {
+            return ponderFuture.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            e.printStackTrace();
+        }
+        return Moves.NONE;
+    }
+
+    // --- FUNÇÃO DE AVALIAÇÃO (comum a Médio e Difícil) ---
+    // Material + tabelas peça-casa com fase (meio-jogo/final), mantidas pelo
+    // próprio Board a cada lance e desfeita: a folha custa O(1).
+    public static int evaluateBoard(Board board) {
+        return board.evaluate();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,75 @@
+package controller;
+
+import model.board.Moves;
+import model.board.Position;
+import model.board.Square;
+
+import java.util.List;
+
+/**
+ * Resultado parcial de uma análise (ver AIPlayer.analyze): as melhores
+ * linhas da posição na última iteração completa, da melhor para a pior.
+ * A análise entrega um destes a cada profundidade, da thread da busca.
+ */
+public final class AnalysisUpdate {
+
+    /** Uma linha: lance da raiz, valor e a variante que começa nele. */
+    public static final class Line {
+        private final int move;
+        private final int score;
+        private final int[] pv;
+        private final String san;
+
+        Line(int move, int score, int[] pv, String san) {
+            this.move = move;
+            this.score = score;
+            this.pv = pv;
+            this.san = san;
+        }
+
+        /** Lance da raiz (int, ver Moves). */
+        public int move() { return move; }
+
+        public Position from() { return Square.of(Moves.from(move)); }
+
+        public Position to() { return Square.of(Moves.to(move)); }
+
+        /** Valor em centipeões, do ponto de vista de quem joga na posição analisada. */
+        public int score() { return score; }
+
+        /** Lances até o mate (ver SearchStats.mateIn), ou 0. */
+        public int mateIn() { return SearchStats.mateIn(score); }
+
+        /** Variante principal, começando pelo lance da raiz. */
+        public int[] pv() { return pv.clone(); }
+
+        /** A variante em SAN ("Nf3 d5 g3 ..."). */
+        public String san() { return san; }
+    }
+
+    private final int depth;
+    private final long nodes;
+    private final long elapsedMillis;
+    private final boolean whiteToMove;
+    private final List<Line> lines;
+
+    AnalysisUpdate(int depth, long nodes, long elapsedMillis, boolean whiteToMove, List<Line> lines) {
+        this.depth = depth;
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.whiteToMove = whiteToMove;
+        this.lines = List.copyOf(lines);
+    }
+
+    public int depth() { return depth; }
+
+    public long nodes() { return nodes; }
+
+    public long elapsedMillis() { return elapsedMillis; }
+
+    /** Lado a jogar na posição analisada (os valores são desse lado). */
+    public boolean whiteToMove() { return whiteToMove; }
+
+    /** As linhas, da melhor para a pior. */
+    public List<Line> lines() { return lines; }
+}
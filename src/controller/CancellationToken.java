@@ -0,0 +1,30 @@
+package controller;
+
+/**
+ * Sinal de cancelamento de uma busca da IA. Quem pediu a busca chama
+ * cancel(); a busca só lê um campo volatile na checagem de relógio (a cada
+ * 2048 nós), então o custo de suportar cancelamento é praticamente zero.
+ */
+public final class CancellationToken {
+    /** Token que nunca é cancelado (buscas síncronas). */
+    public static final CancellationToken NONE = new CancellationToken(false);
+
+    private final boolean cancellable;
+    private volatile boolean cancelled;
+
+    public CancellationToken() {
+        this(true);
+    }
+
+    private CancellationToken(boolean cancellable) {
+        this.cancellable = cancellable;
+    }
+
+    public void cancel() {
+        if (cancellable) cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+}
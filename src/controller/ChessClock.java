@@ -0,0 +1,75 @@
+package controller;
+
+/**
+ * Relógio de xadrez: tempo base + incremento (Fischer) por lado.
+ * Só um lado corre por vez; switchAfterMove cobra o tempo de quem jogou,
+ * soma o incremento e dispara o relógio do adversário.
+ */
+public final class ChessClock {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+
+    private final long baseMillis;
+    private final long incrementMillis;
+    private final long[] remainingNanos = new long[2]; // [0] brancas, [1] pretas
+    private int running = -1; // lado cujo relógio corre, -1 = parado
+    private long startedAt;
+
+    public ChessClock(long baseMillis, long incrementMillis) {
+        this.baseMillis = baseMillis;
+        this.incrementMillis = incrementMillis;
+        reset();
+    }
+
+    public long baseMillis() { return baseMillis; }
+    public long incrementMillis() { return incrementMillis; }
+
+    /** Volta ao tempo base dos dois lados, parado. */
+    public synchronized void reset() {
+        remainingNanos[0] = remainingNanos[1] = baseMillis * NANOS_PER_MILLI;
+        running = -1;
+    }
+
+    /** Põe o relógio do lado indicado para correr (para o outro, se corria). */
+    public synchronized void start(boolean white) {
+        stop();
+        running = side(white);
+        startedAt = System.nanoTime();
+    }
+
+    /** Para o relógio, cobrando o tempo gasto até agora. */
+    public synchronized void stop() {
+        if (running >= 0) {
+            remainingNanos[running] -= System.nanoTime() - startedAt;
+            running = -1;
+        }
+    }
+
+    /** Chamado depois do lance de moverWhite: cobra, soma o incremento e passa a vez. */
+    public synchronized void switchAfterMove(boolean moverWhite) {
+        stop();
+        remainingNanos[side(moverWhite)] += incrementMillis * NANOS_PER_MILLI;
+        start(!moverWhite);
+    }
+
+    /** Define o tempo restante de um lado (ex.: vindo de um "go wtime" da UCI). */
+    public synchronized void setRemainingMillis(boolean white, long millis) {
+        int s = side(white);
+        remainingNanos[s] = millis * NANOS_PER_MILLI;
+        if (running == s) startedAt = System.nanoTime();
+    }
+
+    public synchronized long remainingMillis(boolean white) {
+        int s = side(white);
+        long nanos = remainingNanos[s];
+        if (running == s) nanos -= System.nanoTime() - startedAt;
+        return nanos / NANOS_PER_MILLI;
+    }
+
+    public boolean isFlagged(boolean white) {
+        return remainingMillis(white) <= 0;
+    }
+
+    private static int side(boolean white) {
+        return white ? 0 : 1;
+    }
+}
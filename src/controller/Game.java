@@ -1,183 +1,311 @@
-// ========================= src/controller/Game.java (CORRIGIDO) =========================
-package controller;
-
-import model.board.Board;
-import model.board.Move;
-import model.board.Position;
-import model.pieces.*;
-
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.List;
-import java.util.stream.Collectors;
-
-public class Game {
-
-    private Board board;
-    private boolean whiteToMove = true;
-    private boolean gameOver = false;
-    private Move lastMove = null;
-    private final List<String> history = new ArrayList<>();
-
-    public Game() {
-        this.board = new Board();
-        setupPieces();
-    }
-
-    // ==== API PÚBLICA ====
-
-    public Board board() { return board; }
-    public boolean whiteToMove() { return whiteToMove; }
-    public List<String> history() { return Collections.unmodifiableList(history); }
-    public boolean isGameOver() { return gameOver; }
-    public Move getLastMove() { return lastMove; }
-
-    public String getWinner() {
-        if (!gameOver) return null;
-        return whiteToMove ? "Pretas" : "Brancas";
-    }
-
-    public void reset() {
-        this.board = new Board();
-        setupPieces();
-        whiteToMove = true;
-        gameOver = false;
-        lastMove = null;
-        history.clear();
-    }
-
-    public List<Position> legalMovesFrom(Position from) {
-        if (gameOver) return List.of();
-
-        Piece p = board.get(from);
-        if (p == null || p.isWhite() != whiteToMove) return List.of();
-        
-        List<Position> pseudoLegalMoves = p.getPossibleMoves();
-        
-        return pseudoLegalMoves.stream()
-                .filter(to -> !moveResultsInCheck(from, to))
-                .collect(Collectors.toList());
-    }
-
-    public boolean isPromotion(Position from, Position to) {
-        Piece p = board.get(from);
-        return p instanceof Pawn && (p.isWhite() ? to.getRow() == 0 : to.getRow() == 7);
-    }
-    
-    public void move(Position from, Position to, Character promotion) {
-        if (gameOver) return;
-
-        List<Position> legalMoves = legalMovesFrom(from);
-        if (!legalMoves.contains(to)) {
-            System.err.println("Movimento ilegal tentado: " + from + " para " + to);
-            return;
-        }
-
-        Piece movingPiece = board.get(from);
-        Piece capturedPiece = board.get(to);
-        boolean isPawnPromotion = isPromotion(from, to);
-
-        lastMove = new Move(from, to, movingPiece, capturedPiece, false, false, false, promotion);
-        
-        board.set(to, movingPiece);
-        board.set(from, null);
-        if (movingPiece != null) movingPiece.setMoved(true);
-
-        if (isPawnPromotion) {
-            Piece newPiece = switch (Character.toUpperCase(promotion)) {
-                case 'R' -> new Rook(board, movingPiece.isWhite());
-                case 'B' -> new Bishop(board, movingPiece.isWhite());
-                case 'N' -> new Knight(board, movingPiece.isWhite());
-                default -> new Queen(board, movingPiece.isWhite());
-            };
-            board.set(to, newPiece);
-        }
-
-        whiteToMove = !whiteToMove;
-        history.add(from.toString() + to.toString());
-
-        if (!hasAnyLegalMove(whiteToMove)) {
-            gameOver = true;
-        }
-    }
-    
-    public boolean inCheck(boolean isWhiteSide) {
-        Position kingPos = findKing(isWhiteSide);
-        if (kingPos == null) return false;
-        return isUnderAttack(kingPos, !isWhiteSide);
-    }
-
-    private boolean isUnderAttack(Position target, boolean attackingSideIsWhite) {
-        for (Piece p : board.pieces(attackingSideIsWhite)) {
-            if (p.getAttacks().contains(target)) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private Position findKing(boolean isWhite) {
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Position pos = new Position(r, c);
-                Piece p = board.get(pos);
-                if (p instanceof King && p.isWhite() == isWhite) {
-                    return pos;
-                }
-            }
-        }
-        return null;
-    }
-
-    private boolean moveResultsInCheck(Position from, Position to) {
-        Board tempBoard = board.copy();
-        Piece p = tempBoard.get(from);
-        if (p == null) return false;
-
-        tempBoard.set(to, p);
-        tempBoard.set(from, null);
-        
-        Game tempGame = new Game();
-        tempGame.board = tempBoard;
-
-        return tempGame.inCheck(p.isWhite());
-    }
-    
-    private boolean hasAnyLegalMove(boolean isWhiteSide) {
-        for (Piece p : board.pieces(isWhiteSide)) {
-            List<Position> possibleMoves = p.getPossibleMoves();
-            for (Position to : possibleMoves) {
-                if (!moveResultsInCheck(p.getPosition(), to)) {
-                    return true;
-                }
-            }
-        }
-        return false;
-    }
-
-    private void setupPieces() {
-        board.placePiece(new Rook(board, true),   new Position(7, 0));
-        board.placePiece(new Knight(board, true), new Position(7, 1));
-        board.placePiece(new Bishop(board, true), new Position(7, 2));
-        board.placePiece(new Queen(board, true),  new Position(7, 3));
-        board.placePiece(new King(board, true),   new Position(7, 4));
-        board.placePiece(new Bishop(board, true), new Position(7, 5));
-        board.placePiece(new Knight(board, true), new Position(7, 6));
-        board.placePiece(new Rook(board, true),   new Position(7, 7));
-        for (int c = 0; c < 8; c++) {
-            board.placePiece(new Pawn(board, true), new Position(6, c));
-        }
-
-        board.placePiece(new Rook(board, false),   new Position(0, 0));
-        board.placePiece(new Knight(board, false), new Position(0, 1));
-        board.placePiece(new Bishop(board, false), new Position(0, 2));
-        board.placePiece(new Queen(board, false),  new Position(0, 3));
-        board.placePiece(new King(board, false),   new Position(0, 4));
-        board.placePiece(new Bishop(board, false), new Position(0, 5));
-        board.placePiece(new Knight(board, false), new Position(0, 6));
-        board.placePiece(new Rook(board, false),   new Position(0, 7));
-        for (int c = 0; c < 8; c++) {
-            board.placePiece(new Pawn(board, false), new Position(1, c));
-        }
-    }
-}
+// ========================= src/controller/Game.java (CORRIGIDO) =========================
+package controller;
+
+import model.board.Board;
+import model.board.Fen;
+import model.board.Move;
+import model.board.MoveGenerator;
+import model.board.MoveList;
+import model.board.Moves;
+import model.board.Position;
+import model.board.Square;
+import model.pieces.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+public class Game {
+
+    private static final String[] HISTORY_NAMES = new String[64 * 64];
+
+    private Board board;
+    private boolean gameOver = false;
+    private Move lastMove = null;
+    private final List<String> history = new ArrayList<>();
+    private ChessClock clock = null; // null = partida sem relógio
+    private int generation; // muda a cada reset(): separa buscas da IA de partidas diferentes
+    private final MoveList scratch = new MoveList(); // buffer de legalMovesFrom / fim de jogo
+    private MoveJournal journal = null; // null = lances não são gravados
+
+    public Game() {
+        this.board = new Board();
+        setupPieces();
+    }
+
+    // Usado por copy(): assume um tabuleiro já montado
+    private Game(Board board) {
+        this.board = board;
+    }
+
+    /**
+     * Partida começando na posição de fen (ver {@link Fen}).
+     * @throws IllegalArgumentException se a FEN for inválida
+     */
+    public static Game fromFen(String fen) {
+        return new Game(Fen.parse(fen));
+    }
+
+    // ==== API PÚBLICA ====
+
+    public Board board() { return board; }
+    public boolean whiteToMove() { return board.whiteToMove(); }
+    public List<String> history() { return Collections.unmodifiableList(history); }
+    public boolean isGameOver() { return gameOver; }
+    public Move getLastMove() { return lastMove; }
+
+    /** Número da partida neste objeto: aumenta a cada reset(). */
+    public int generation() { return generation; }
+
+    /** FEN da posição atual. */
+    public String toFen() { return Fen.toFen(board); }
+
+    /** Chave de Zobrist da posição atual. */
+    public long positionKey() { return board.key(); }
+
+    /** A posição atual ocorreu pela terceira vez (repetição tripla)? */
+    public boolean isThreefoldRepetition() { return board.repetitionCount() >= 2; }
+
+    /** Relógio da partida, ou null se a partida não tem controle de tempo. */
+    public ChessClock clock() { return clock; }
+
+    /** Liga um relógio (base + incremento); ele começa a correr no primeiro lance. */
+    public void setClock(ChessClock clock) { this.clock = clock; }
+
+    /**
+     * Encerra a partida se o lado a jogar estourou o tempo. Deve ser consultado
+     * periodicamente por quem exibe o relógio; devolve true se acabou no tempo.
+     */
+    public boolean checkTimeout() {
+        if (!gameOver && clock != null && clock.isFlagged(board.whiteToMove())) {
+            gameOver = true; // getWinner(): perde quem está a jogar
+            clock.stop();
+            return true;
+        }
+        return false;
+    }
+
+    public String getWinner() {
+        if (!gameOver) return null;
+        return board.whiteToMove() ? "Pretas" : "Brancas";
+    }
+
+    public void reset() {
+        this.board = new Board();
+        setupPieces();
+        gameOver = false;
+        lastMove = null;
+        history.clear();
+        generation++;
+        if (clock != null) clock.reset();
+        if (journal != null) journal.restart(board);
+    }
+
+    /** Passa a gravar cada lance de move() em journal, começando pela posição atual. */
+    public void setJournal(MoveJournal journal) {
+        this.journal = journal;
+        journal.restart(board);
+    }
+
+    /**
+     * Troca esta partida pela gravada em journal e continua gravando nele.
+     * Parte do último checkpoint e refaz só os lances seguintes; se a posição
+     * dele ainda pode se repetir (meio-lances desde a última captura ou lance
+     * de peão), recua para um checkpoint anterior a isso, para a contagem de
+     * repetições sair igual. O histórico sai direto dos registros.
+     */
+    public void resume(MoveJournal journal) {
+        int n = journal.size();
+        Board b = new Board();
+        // No máximo n - 1: o último lance é sempre refeito abaixo, como Move
+        int ply = journal.checkpoint(Math.max(0, n - 1), b);
+        if (b.halfmoveClock() > 0 && ply > 0) ply = journal.checkpoint(Math.max(0, ply - b.halfmoveClock()), b);
+        for (; ply < n - 1; ply++) b.makeMove(journal.move(ply));
+        board = b;
+        history.clear();
+        for (int i = 0; i < n; i++) {
+            int m = journal.move(i);
+            history.add(historyName(Moves.from(m), Moves.to(m)));
+        }
+        lastMove = null;
+        if (n > 0) {
+            // O último como Move, para a interface destacar
+            int m = journal.move(n - 1);
+            Character promo = Moves.isPromotion(m) ? "PNBRQK".charAt(Moves.promotionType(m)) : null;
+            lastMove = createMove(Square.of(Moves.from(m)), Square.of(Moves.to(m)), promo);
+            board.makeMove(lastMove);
+        }
+        gameOver = !hasAnyLegalMove();
+        generation++;
+        if (clock != null) clock.reset();
+        this.journal = journal;
+    }
+
+    public List<Position> legalMovesFrom(Position from) {
+        if (gameOver) return List.of();
+
+        Piece p = board.get(from);
+        if (p == null || p.isWhite() != board.whiteToMove()) return List.of();
+
+        int fromSq = from.getRow() * 8 + from.getColumn();
+        MoveGenerator.generateLegal(board, scratch);
+        List<Position> targets = new ArrayList<>();
+        for (int i = 0; i < scratch.size(); i++) {
+            int m = scratch.get(i);
+            if (Moves.from(m) != fromSq) continue;
+            Position to = Square.of(Moves.to(m));
+            if (!targets.contains(to)) targets.add(to); // as 4 promoções têm o mesmo destino
+        }
+        return targets;
+    }
+
+    /**
+     * Lances legais da posição atual, codificados em int (ver Moves), escritos
+     * no buffer do chamador. Não aloca: é o caminho usado pela busca.
+     */
+    public void legalMoves(MoveList out) {
+        MoveGenerator.generateLegal(board, out);
+    }
+
+    public boolean isPromotion(Position from, Position to) {
+        Piece p = board.get(from);
+        return p instanceof Pawn && (p.isWhite() ? to.getRow() == 0 : to.getRow() == 7);
+    }
+    
+    public void move(Position from, Position to, Character promotion) {
+        if (gameOver || checkTimeout()) return;
+
+        List<Position> legalMoves = legalMovesFrom(from);
+        if (!legalMoves.contains(to)) {
+            System.err.println("Movimento ilegal tentado: " + from + " para " + to);
+            return;
+        }
+
+        boolean moverWhite = board.whiteToMove();
+        lastMove = createMove(from, to, promotion);
+        int encoded = journal != null ? encode(lastMove) : Moves.NONE; // scratch ainda tem os lances legais
+        board.makeMove(lastMove);
+        history.add(from.toString() + to.toString());
+        if (journal != null) journal.append(encoded, board);
+        if (clock != null) clock.switchAfterMove(moverWhite);
+
+        if (!hasAnyLegalMove()) {
+            gameOver = true;
+            if (clock != null) clock.stop();
+        }
+    }
+
+    /** Como move(from, to, promoção), com um lance codificado (ver Moves), por exemplo o da IA. */
+    public void move(int move) {
+        Character promo = Moves.isPromotion(move) ? "PNBRQK".charAt(Moves.promotionType(move)) : null;
+        move(Square.of(Moves.from(move)), Square.of(Moves.to(move)), promo);
+    }
+
+    /**
+     * Monta o Move de from para to na posição atual. Em promoções sem peça
+     * escolhida, promove a Dama. Rei andando duas colunas é roque; peão
+     * entrando na casa de en passant captura o peão ao lado.
+     */
+    public Move createMove(Position from, Position to, Character promotion) {
+        Piece movingPiece = board.get(from);
+        Character promo = isPromotion(from, to) ? (promotion == null ? 'Q' : promotion) : null;
+        int dCol = to.getColumn() - from.getColumn();
+        boolean castle = movingPiece instanceof King && Math.abs(dCol) == 2;
+        boolean enPassant = movingPiece instanceof Pawn && dCol != 0
+                && to.getRow() * 8 + to.getColumn() == board.enPassantSquare();
+        Piece captured = enPassant ? board.get(new Position(from.getRow(), to.getColumn())) : board.get(to);
+        return new Move(from, to, movingPiece, captured, castle && dCol > 0, castle && dCol < 0, enPassant, promo);
+    }
+
+    /** Aplica um lance no tabuleiro sem validar nem registrar no histórico (uso da busca). */
+    public void makeMove(Move move) {
+        board.makeMove(move);
+    }
+
+    /** Aplica um lance codificado (ver Moves) sem validar. */
+    public void makeMove(int move) {
+        board.makeMove(move);
+    }
+
+    /** Desfaz o último lance aplicado com makeMove. */
+    public void unmakeMove() {
+        board.unmakeMove();
+    }
+
+    /** Perft da posição atual: folhas da árvore de lances legais até depth plies. */
+    public long perft(int depth) {
+        return Perft.perft(board, depth);
+    }
+
+    /** Perft por lance da raiz ("e2e4" -> folhas), para achar onde o gerador erra. */
+    public Map<String, Long> divide(int depth) {
+        return Perft.divide(board, depth);
+    }
+
+    /** Cópia independente da partida, para a IA buscar sem mexer no tabuleiro da interface. */
+    public Game copy() {
+        Game g = new Game(board.copy());
+        g.gameOver = gameOver;
+        g.lastMove = lastMove;
+        g.generation = generation;
+        g.history.addAll(history);
+        return g;
+    }
+    
+    /** O rei do lado indicado está atacado? (consulta reversa nas tabelas de ataque) */
+    public boolean inCheck(boolean isWhiteSide) {
+        return MoveGenerator.isAttacked(board, board.kingSquare(isWhiteSide), !isWhiteSide);
+    }
+
+    // "e2e4" do histórico, guardado por par de casas (partidas longas repetem muito os pares)
+    private static String historyName(int from, int to) {
+        String name = HISTORY_NAMES[from << 6 | to];
+        if (name == null) HISTORY_NAMES[from << 6 | to] = name = Square.of(from).toString() + Square.of(to);
+        return name;
+    }
+
+    // O lance legal (de scratch) equivalente a m
+    private int encode(Move m) {
+        int from = Board.square(m.getFrom()), to = Board.square(m.getTo());
+        int promo = m.getPromotion() == null ? -1 : "PNBRQK".indexOf(Character.toUpperCase(m.getPromotion()));
+        for (int i = 0; i < scratch.size(); i++) {
+            int e = scratch.get(i);
+            if (Moves.from(e) == from && Moves.to(e) == to
+                    && (!Moves.isPromotion(e) || Moves.promotionType(e) == promo)) return e;
+        }
+        return Moves.NONE;
+    }
+
+    private boolean hasAnyLegalMove() {
+        MoveGenerator.generateLegal(board, scratch);
+        return !scratch.isEmpty();
+    }
+
+    private void setupPieces() {
+        board.setCastlingRights(Board.CASTLE_WK | Board.CASTLE_WQ | Board.CASTLE_BK | Board.CASTLE_BQ);
+        board.placePiece(new Rook(board, true),   new Position(7, 0));
+        board.placePiece(new Knight(board, true), new Position(7, 1));
+        board.placePiece(new Bishop(board, true), new Position(7, 2));
+        board.placePiece(new Queen(board, true),  new Position(7, 3));
+        board.placePiece(new King(board, true),   new Position(7, 4));
+        board.placePiece(new Bishop(board, true), new Position(7, 5));
+        board.placePiece(new Knight(board, true), new Position(7, 6));
+        board.placePiece(new Rook(board, true),   new Position(7, 7));
+        for (int c = 0; c < 8; c++) {
+            board.placePiece(new Pawn(board, true), new Position(6, c));
+        }
+
+        board.placePiece(new Rook(board, false),   new Position(0, 0));
+        board.placePiece(new Knight(board, false), new Position(0, 1));
+        board.placePiece(new Bishop(board, false), new Position(0, 2));
+        board.placePiece(new Queen(board, false),  new Position(0, 3));
+        board.placePiece(new King(board, false),   new Position(0, 4));
+        board.placePiece(new Bishop(board, false), new Position(0, 5));
+        board.placePiece(new Knight(board, false), new Position(0, 6));
+        board.placePiece(new Rook(board, false),   new Position(0, 7));
+        for (int c = 0; c < 8; c++) {
+            board.placePiece(new Pawn(board, false), new Position(1, c));
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package controller;
+
+import model.board.MoveList;
+import model.board.Moves;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cliente de carga do GameServer, na mesma máquina: abre N partidas ao mesmo
+ * tempo (uma conexão e uma virtual thread cada), joga lances legais
+ * sorteados contra a IA e mede o tempo de cada lance do pedido à resposta.
+ * Quando o servidor responde "busy", espera (cada vez mais) e tenta de novo. No
+ * fim imprime o resumo do lado do cliente e o "stats" do servidor.
+ *
+ * Uso: java controller.GameClient [--port N] [--sessions N] [--moves N] [--level EASY|MEDIUM|HARD]
+ */
+public final class GameClient {
+    private static final long BUSY_RETRY_MS = 20, BUSY_MAX_MS = 1000;
+
+    private final int port;
+    private final AIDifficulty level;
+    private final int maxMoves;
+    private final LongAdder moves = new LongAdder(), busy = new LongAdder();
+    private final AtomicInteger finished = new AtomicInteger(), failed = new AtomicInteger();
+    private final long[] latencies; // micros, um por lance
+    private final AtomicInteger latencyCount = new AtomicInteger();
+
+    public GameClient(int port, AIDifficulty level, int sessions, int maxMoves) {
+        this.port = port;
+        this.level = level;
+        this.maxMoves = maxMoves;
+        this.latencies = new long[sessions * maxMoves];
+    }
+
+    /** Joga sessions partidas em paralelo e espera todas. */
+    public void run(int sessions) throws IOException {
+        long start = System.nanoTime();
+        Thread monitor = Thread.ofVirtual().name("client-stats").start(this::monitor);
+        try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < sessions; i++) {
+                long seed = i;
+                exec.submit(() -> {
+                    try {
+                        play(new Random(seed), seed % 2 == 0);
+                    } catch (IOException | RuntimeException e) {
+                        failed.incrementAndGet();
+                        System.err.println("Partida falhou: " + e);
+                    }
+                    return null;
+                });
+            }
+        }
+        monitor.interrupt();
+        double secs = (System.nanoTime() - start) / 1e9;
+        long[] sorted = Arrays.copyOf(latencies, latencyCount.get());
+        Arrays.sort(sorted);
+        System.out.printf("%d partidas (%d até o fim, %d falharam), %d lances em %.1f s: %.0f lances/s, %d busy%n",
+                sessions, finished.get(), failed.get(), moves.sum(), secs, moves.sum() / secs, busy.sum());
+        System.out.printf("latência por lance: p50 %.1f ms, p95 %.1f ms, p99 %.1f ms, máx %.1f ms%n",
+                percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), percentile(sorted, 1.0));
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = reader(socket); PrintWriter out = writer(socket)) {
+            System.out.println(stats(in, out).getLast());
+            out.println("quit");
+        }
+    }
+
+    // A cada segundo, o "stats" do servidor resumido: a linha do pool e a partida de pior p95
+    private void monitor() {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = reader(socket); PrintWriter out = writer(socket)) {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(1000);
+                List<String> lines = stats(in, out);
+                String worst = null;
+                double worstP95 = -1;
+                for (String line : lines.subList(0, lines.size() - 1)) {
+                    String[] t = line.split(" ");
+                    double p95 = Double.parseDouble(t[9]);
+                    if (p95 > worstP95) {
+                        worstP95 = p95;
+                        worst = line;
+                    }
+                }
+                System.out.println(lines.getLast() + (worst != null ? "\n  pior: " + worst : ""));
+            }
+        } catch (IOException | InterruptedException e) {
+            // fim do teste
+        }
+    }
+
+    // Linhas "session ..." e, por último, a "pool ..."
+    private static List<String> stats(BufferedReader in, PrintWriter out) throws IOException {
+        out.println("stats");
+        List<String> lines = new ArrayList<>();
+        String line;
+        while ((line = in.readLine()) != null) {
+            lines.add(line);
+            if (line.startsWith("pool ")) break;
+        }
+        if (lines.isEmpty()) throw new IOException("conexão fechada");
+        return lines;
+    }
+
+    // Uma partida; a cópia local do Game serve para sortear lances legais e conferir os da IA
+    private void play(Random random, boolean white) throws IOException {
+        try (Socket socket = new Socket(InetAddress.getLoopbackAddress(), port);
+             BufferedReader in = reader(socket); PrintWriter out = writer(socket)) {
+            Game game = new Game();
+            MoveList legal = new MoveList();
+            String[] reply = request(in, out, "new " + level + (white ? " white" : " black"));
+            for (int attempt = 0; reply[0].equals("busy"); attempt++) {
+                backoff(random, attempt);
+                reply = request(in, out, "new " + level + (white ? " white" : " black"));
+            }
+            if (!reply[0].equals("ok")) throw new IOException("new recusado: " + String.join(" ", reply));
+            String id = reply[1];
+            if (!white && !applyAiMove(game, legal, in.readLine())) {
+                finished.incrementAndGet();
+                return;
+            }
+            for (int n = 0; n < maxMoves; n++) {
+                game.legalMoves(legal);
+                if (legal.isEmpty()) break;
+                String mine = Moves.toString(legal.get(random.nextInt(legal.size())));
+                long t0 = System.nanoTime();
+                reply = request(in, out, "move " + id + " " + mine);
+                for (int attempt = 0; reply[0].equals("busy"); attempt++) {
+                    backoff(random, attempt);
+                    reply = request(in, out, "move " + id + " " + mine);
+                }
+                game.makeMove(Uci.parseMove(game, mine, legal));
+                record(System.nanoTime() - t0);
+                if (!applyAiMove(game, legal, String.join(" ", reply))) break;
+            }
+            finished.incrementAndGet();
+            out.println("quit");
+        }
+    }
+
+    // "move <id> <lance> [resultado]"; false se a partida acabou
+    private boolean applyAiMove(Game game, MoveList legal, String line) throws IOException {
+        String[] t = line == null ? new String[] {"eof"} : line.split(" ");
+        if (t[0].equals("end")) return false;
+        if (!t[0].equals("move") || t.length < 3) throw new IOException("resposta inesperada: " + line);
+        int move = Uci.parseMove(game, t[2], legal);
+        if (move == Moves.NONE) throw new IOException("lance ilegal da IA: " + line);
+        game.makeMove(move);
+        return t.length == 3;
+    }
+
+    private String[] request(BufferedReader in, PrintWriter out, String command) throws IOException {
+        out.println(command);
+        String line = in.readLine();
+        if (line == null) throw new IOException("conexão fechada");
+        return line.split(" ");
+    }
+
+    private void record(long nanos) {
+        moves.increment();
+        int i = latencyCount.getAndIncrement();
+        if (i < latencies.length) latencies[i] = nanos / 1000;
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) return 0;
+        return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e3;
+    }
+
+    // Espera antes de repetir um pedido recusado: dobra a cada tentativa, com sorteio para não voltarem todos juntos
+    private void backoff(Random random, int attempt) {
+        busy.increment();
+        long max = Math.min(BUSY_MAX_MS, BUSY_RETRY_MS << Math.min(attempt, 10));
+        try {
+            Thread.sleep(max / 2 + random.nextLong(max / 2 + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static BufferedReader reader(Socket s) throws IOException {
+        return new BufferedReader(new InputStreamReader(s.getInputStream(), StandardCharsets.UTF_8));
+    }
+
+    private static PrintWriter writer(Socket s) throws IOException {
+        return new PrintWriter(new OutputStreamWriter(s.getOutputStream(), StandardCharsets.UTF_8), true);
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = GameServer.DEFAULT_PORT, sessions = 100, moves = 20;
+        AIDifficulty level = AIDifficulty.EASY;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--sessions" -> sessions = Integer.parseInt(args[++i]);
+                case "--moves" -> moves = Integer.parseInt(args[++i]);
+                case "--level" -> level = AIDifficulty.valueOf(args[++i].toUpperCase());
+                default -> {
+                    System.err.println("Uso: java controller.GameClient [--port N] [--sessions N] [--moves N]"
+                            + " [--level EASY|MEDIUM|HARD]");
+                    System.exit(1);
+                }
+            }
+        }
+        new GameClient(port, level, sessions, moves).run(sessions);
+    }
+}
@@ -0,0 +1,459 @@
+package controller;
+
+import model.board.MoveList;
+import model.board.Moves;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Servidor de muitas partidas ao mesmo tempo (pessoa contra a IA), num
+ * protocolo de texto por TCP, uma linha por comando. Para clientes locais e
+ * testes de carga (ver GameClient).
+ *
+ * Cada partida é um ator: uma virtual thread dona do seu Game, que executa
+ * em ordem os pedidos da sua caixa de entrada; nenhuma outra thread toca no
+ * Game. As buscas da IA de todas as partidas vão para um pool limitado de N
+ * threads, numa fila por ordem de chegada, e têm tempo fixo por lance, então
+ * uma busca funda não segura as outras partidas além da sua vez na fila.
+ * Pressão de volta: se a fila da IA já tem maxQueued lances esperando, ou a
+ * caixa de entrada da partida está cheia, o pedido é recusado com "busy"
+ * (sem mexer na partida) em vez de esperar sem limite.
+ *
+ * Comandos e respostas:
+ *   new [EASY|MEDIUM|HARD] [white|black] -> "ok <id>" (e o lance da IA, se ela abre)
+ *   move <id> <lance UCI>  -> "move <id> <lance da IA> [resultado]", ou "end <id> <resultado>"
+ *                             se o seu lance encerrou a partida; depois de um resultado
+ *                             (mate ou empate pelas regras) só "error <id> partida encerrada"
+ *   fen <id>               -> "fen <id> <FEN>"
+ *   close <id>             -> "closed <id>"
+ *   stats                  -> uma linha "session ..." por partida (lances, latência
+ *                             em ms do pedido à resposta, fila) e por fim "pool ..."
+ *   quit
+ * Erros: "error <id> <motivo>" e "busy <id>". As partidas de uma conexão
+ * são fechadas quando ela cai.
+ *
+ * Uso: java controller.GameServer [--port N] [--threads N] [--movetime ms] [--queue N]
+ */
+public final class GameServer {
+    public static final int DEFAULT_PORT = 7777;
+    private static final int MAILBOX = 8;
+    private static final int LATENCY_SAMPLES = 256;
+
+    private final AiPool pool;
+    private final Map<Integer, Session> sessions = new ConcurrentHashMap<>();
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    public GameServer(int threads, long moveTime, int maxQueued) {
+        this.pool = new AiPool(threads, moveTime, maxQueued);
+    }
+
+    /** Aceita conexões em port (só local) até a thread ser interrompida; uma virtual thread por conexão. */
+    public void serve(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port, 512, InetAddress.getLoopbackAddress())) {
+            System.out.println("Servidor de partidas em " + server.getLocalSocketAddress() + ", " + pool.describe());
+            while (!Thread.currentThread().isInterrupted()) {
+                Socket socket = server.accept();
+                Thread.ofVirtual().name("conn-" + socket.getPort()).start(() -> new Connection(socket).run());
+            }
+        }
+    }
+
+    /**
+     * Pool de CPU da IA, comum a todas as partidas: N threads de plataforma
+     * (a busca é CPU pura e não deve ocupar as threads que carregam as
+     * virtual threads) com uma fila por ordem de chegada. Cada pedido aceito
+     * reserva antes uma vaga (reserve/release); com threads + maxQueued
+     * vagas tomadas, os pedidos novos são recusados.
+     */
+    private static final class AiPool {
+        final int threads;
+        final long moveTime;
+        final int maxQueued;
+        final ThreadPoolExecutor workers;
+        final AtomicInteger reserved = new AtomicInteger();
+        final Map<AIDifficulty, BlockingQueue<AIPlayer>> idle = new EnumMap<>(AIDifficulty.class);
+        final LongAdder searches = new LongAdder(), thinkNanos = new LongAdder(), rejected = new LongAdder();
+
+        AiPool(int threads, long moveTime, int maxQueued) {
+            this.threads = threads;
+            this.moveTime = moveTime;
+            this.maxQueued = maxQueued;
+            AtomicInteger n = new AtomicInteger();
+            this.workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        Thread t = new Thread(r, "ai-" + n.getAndIncrement());
+                        t.setDaemon(true);
+                        return t;
+                    });
+            OpeningBook book = OpeningBook.openIfExists(Path.of("resources", "book.bin"));
+            Tablebases tb = Tablebases.openIfExists(Path.of("resources", "tb"));
+            for (AIDifficulty d : AIDifficulty.values()) {
+                BlockingQueue<AIPlayer> q = new ArrayBlockingQueue<>(threads);
+                for (int i = 0; i < threads; i++) {
+                    AIPlayer p = new AIPlayer(d, 4);
+                    p.setMoveTime(moveTime);
+                    p.setOpeningBook(book);
+                    p.setTablebases(tb);
+                    q.add(p);
+                }
+                idle.put(d, q);
+            }
+        }
+
+        /** Reserva a vaga de um lance da IA; false (pedido recusado) se a fila já está cheia. */
+        boolean reserve() {
+            int r;
+            do {
+                r = reserved.get();
+                if (r >= threads + maxQueued) {
+                    rejected.increment();
+                    return false;
+                }
+            } while (!reserved.compareAndSet(r, r + 1));
+            return true;
+        }
+
+        void release() {
+            reserved.decrementAndGet();
+        }
+
+        /** Pensa o lance de game (codificado, ver Moves) numa thread do pool; quem chama (o ator) espera. */
+        int think(AIDifficulty difficulty, Game game) throws InterruptedException {
+            BlockingQueue<AIPlayer> q = idle.get(difficulty);
+            Future<Integer> f = workers.submit(() -> {
+                AIPlayer player = q.take(); // nunca espera: há um por thread
+                try {
+                    long t0 = System.nanoTime();
+                    int move = player.findBestMoveEncoded(game);
+                    thinkNanos.add(System.nanoTime() - t0);
+                    searches.increment();
+                    return move;
+                } finally {
+                    q.add(player);
+                }
+            });
+            try {
+                return f.get();
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Erro na busca da IA", e.getCause());
+            } finally {
+                f.cancel(true); // só faz algo se quem espera foi interrompido
+            }
+        }
+
+        String describe() {
+            return "IA: " + threads + " threads, " + moveTime + " ms por lance, fila até " + maxQueued;
+        }
+
+        String stats(int sessionCount) {
+            long n = searches.sum();
+            return String.format("pool sessions %d threads %d busy %d queued %d searches %d think_ms %.1f rejected %d",
+                    sessionCount, threads, workers.getActiveCount(), workers.getQueue().size(), n,
+                    n == 0 ? 0 : thinkNanos.sum() / 1e6 / n, rejected.sum());
+        }
+    }
+
+    private record Task(Runnable run, boolean reserved) { }
+
+    /** Uma partida e a virtual thread que é dona dela. */
+    private final class Session {
+        final int id;
+        final Connection owner;
+        final AIDifficulty difficulty;
+        final boolean humanWhite;
+        final Game game = new Game();
+        final MoveList legal = new MoveList();
+        final BlockingQueue<Task> mailbox = new ArrayBlockingQueue<>(MAILBOX);
+        final Thread actor;
+
+        // Latências dos últimos lances (ms), lidas pelo "stats" de outra thread
+        private final long[] latencies = new long[LATENCY_SAMPLES];
+        private long moves, totalMicros, maxMicros;
+        // Resultado já enviado (mate ou empate pelas regras); só o ator lê e escreve
+        private boolean finished;
+
+        Session(int id, Connection owner, AIDifficulty difficulty, boolean humanWhite) {
+            this.id = id;
+            this.owner = owner;
+            this.difficulty = difficulty;
+            this.humanWhite = humanWhite;
+            this.actor = Thread.ofVirtual().name("session-" + id).start(this::loop);
+        }
+
+        private void loop() {
+            try {
+                while (!Thread.currentThread().isInterrupted()) {
+                    Task task = mailbox.take();
+                    try {
+                        task.run().run();
+                    } finally {
+                        if (task.reserved()) pool.release();
+                    }
+                }
+            } catch (InterruptedException e) {
+                // close(): a partida acabou
+            }
+            for (Task task; (task = mailbox.poll()) != null; ) {
+                if (task.reserved()) pool.release();
+            }
+        }
+
+        /** Entrega um pedido ao ator; false se a caixa estiver cheia. */
+        boolean post(Runnable task) {
+            return mailbox.offer(new Task(task, false));
+        }
+
+        /** Entrega um pedido que pode pedir um lance à IA: reserva a vaga no pool antes. */
+        boolean postReserved(Runnable task) {
+            if (!pool.reserve()) return false;
+            if (mailbox.offer(new Task(task, true))) return true;
+            pool.release();
+            return false;
+        }
+
+        void close() {
+            actor.interrupt();
+        }
+
+        // ==== Executados só pelo ator ====
+
+        void start(long received) {
+            owner.send("ok " + id);
+            if (!humanWhite) aiMove(received);
+        }
+
+        void humanMove(String uci, long received) {
+            if (finished) {
+                owner.send("error " + id + " partida encerrada");
+                return;
+            }
+            if (game.whiteToMove() != humanWhite) {
+                owner.send("error " + id + " não é a sua vez");
+                return;
+            }
+            int move = Uci.parseMove(game, uci, legal);
+            if (move == Moves.NONE) {
+                owner.send("error " + id + " lance ilegal " + uci);
+                return;
+            }
+            game.move(move);
+            String result = result();
+            if (result != null) {
+                owner.send("end " + id + " " + result);
+                record(received);
+            } else {
+                aiMove(received);
+            }
+        }
+
+        private void aiMove(long received) {
+            int best;
+            try {
+                best = pool.think(difficulty, game);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (best == Moves.NONE) {
+                owner.send("error " + id + " a IA não achou lance");
+                return;
+            }
+            game.move(best); // com a promoção que a IA escolheu
+            String result = result();
+            owner.send("move " + id + " " + Moves.toString(best) + (result != null ? " " + result : ""));
+            record(received);
+        }
+
+        // "1-0", "0-1" ou "1/2-1/2" se a partida acabou (e marca a sessão encerrada), senão null
+        private String result() {
+            int r = SelfPlay.rulesResult(game, legal);
+            if (r == Integer.MIN_VALUE) return null;
+            finished = true;
+            return r > 0 ? "1-0" : r < 0 ? "0-1" : "1/2-1/2";
+        }
+
+        private synchronized void record(long received) {
+            long micros = (System.nanoTime() - received) / 1000;
+            latencies[(int) (moves % LATENCY_SAMPLES)] = micros;
+            moves++;
+            totalMicros += micros;
+            maxMicros = Math.max(maxMicros, micros);
+        }
+
+        synchronized String stats() {
+            long[] recent = Arrays.copyOf(latencies, (int) Math.min(moves, LATENCY_SAMPLES));
+            Arrays.sort(recent);
+            return String.format("session %d moves %d avg_ms %.1f p50_ms %.1f p95_ms %.1f max_ms %.1f queue %d",
+                    id, moves, moves == 0 ? 0 : totalMicros / 1e3 / moves, percentile(recent, 0.50),
+                    percentile(recent, 0.95), maxMicros / 1e3, mailbox.size());
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) return 0;
+            return sorted[Math.min(sorted.length - 1, (int) (p * sorted.length))] / 1e3;
+        }
+    }
+
+    /** Uma conexão de cliente: lê comandos na sua virtual thread e repassa aos atores. */
+    private final class Connection {
+        final Socket socket;
+        final List<Session> own = new ArrayList<>();
+        private Writer out;
+
+        Connection(Socket socket) {
+            this.socket = socket;
+        }
+
+        void run() {
+            try (socket;
+                 BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8))) {
+                out = new BufferedWriter(new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.UTF_8));
+                String line;
+                while ((line = in.readLine()) != null) {
+                    if (!execute(line.trim().split("\\s+"), System.nanoTime())) break;
+                }
+            } catch (IOException e) {
+                // cliente caiu
+            } finally {
+                for (Session s : own) {
+                    sessions.remove(s.id);
+                    s.close();
+                }
+            }
+        }
+
+        // Executa um comando; false = quit
+        private boolean execute(String[] t, long received) {
+            switch (t[0]) {
+                case "new" -> {
+                    AIDifficulty d = AIDifficulty.MEDIUM;
+                    boolean white = true;
+                    for (int i = 1; i < t.length; i++) {
+                        if (t[i].equalsIgnoreCase("black")) white = false;
+                        else if (!t[i].equalsIgnoreCase("white")) d = difficulty(t[i]);
+                    }
+                    if (d == null) {
+                        send("error 0 nível desconhecido");
+                    } else {
+                        Session s = new Session(nextId.getAndIncrement(), this, d, white);
+                        if (white ? s.post(() -> s.start(received)) : s.postReserved(() -> s.start(received))) {
+                            sessions.put(s.id, s);
+                            own.add(s);
+                        } else {
+                            s.close();
+                            send("busy 0");
+                        }
+                    }
+                }
+                case "move" -> {
+                    Session s = session(t, 3);
+                    if (s == null) return true;
+                    String uci = t[2];
+                    if (!s.postReserved(() -> s.humanMove(uci, received))) send("busy " + s.id);
+                }
+                case "fen" -> {
+                    Session s = session(t, 2);
+                    if (s != null && !s.post(() -> send("fen " + s.id + " " + s.game.toFen()))) send("busy " + s.id);
+                }
+                case "close" -> {
+                    Session s = session(t, 2);
+                    if (s == null) return true;
+                    sessions.remove(s.id);
+                    own.remove(s);
+                    s.close();
+                    send("closed " + s.id);
+                }
+                case "stats" -> {
+                    StringBuilder sb = new StringBuilder();
+                    sessions.values().stream().sorted((a, b) -> Integer.compare(a.id, b.id))
+                            .forEach(s -> sb.append(s.stats()).append('\n'));
+                    sb.append(pool.stats(sessions.size()));
+                    send(sb.toString());
+                }
+                case "quit" -> {
+                    return false;
+                }
+                case "" -> { }
+                default -> send("error 0 comando desconhecido " + t[0]);
+            }
+            return true;
+        }
+
+        // Partida do id em t[1], desta conexão, com pelo menos n campos no comando
+        private Session session(String[] t, int n) {
+            Session s = null;
+            try {
+                if (t.length >= n) s = sessions.get(Integer.parseInt(t[1]));
+            } catch (NumberFormatException e) {
+                // cai no erro abaixo
+            }
+            if (s == null || s.owner != this) {
+                send("error " + (t.length > 1 ? t[1] : "0") + " partida desconhecida");
+                return null;
+            }
+            return s;
+        }
+
+        /** Envia uma linha; chamado pelos atores das partidas desta conexão, em paralelo. */
+        synchronized void send(String line) {
+            try {
+                out.write(line);
+                out.write('\n');
+                out.flush();
+            } catch (IOException e) {
+                // a leitura vai ver a conexão caída e fechar as partidas
+            }
+        }
+
+        private static AIDifficulty difficulty(String name) {
+            try {
+                return AIDifficulty.valueOf(name.toUpperCase());
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        int port = DEFAULT_PORT, threads = Runtime.getRuntime().availableProcessors(), queue = 0;
+        long moveTime = 100;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--port" -> port = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Math.max(1, Integer.parseInt(args[++i]));
+                case "--movetime" -> moveTime = Long.parseLong(args[++i]);
+                case "--queue" -> queue = Integer.parseInt(args[++i]);
+                default -> {
+                    System.err.println("Uso: java controller.GameServer [--port N] [--threads N] [--movetime ms] [--queue N]");
+                    System.exit(1);
+                }
+            }
+        }
+        new GameServer(threads, moveTime, queue > 0 ? queue : 64 * threads).serve(port);
+    }
+}
@@ -0,0 +1,178 @@
+package controller;
+
+import model.board.Board;
+import model.board.Fen;
+import model.board.PositionCodec;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Diário de uma partida num arquivo mapeado em memória, só de acréscimo:
+ * cada lance de Game.move vira um registro de 8 bytes e, a cada
+ * CHECKPOINT_INTERVAL lances, a posição inteira (PositionCodec) também é
+ * gravada. Gravar é só escrever na memória mapeada, sem chamada ao sistema
+ * nem espera pelo disco, então cabe em todo lance na thread da interface;
+ * se o programa morrer, o sistema operacional ainda grava as páginas. A ida
+ * ao disco (force) é pedida em segundo plano a cada checkpoint e no close.
+ *
+ * Formato (big-endian):
+ *   cabeçalho, 64 bytes: MAGIC, intervalo (int), reservado (int),
+ *     lances gravados (long), posição inicial (32 bytes), reservado
+ *   para cada lance p = 0, 1, ...: TAG_MOVE << 56 | p << 16 | lance (ver Moves)
+ *     e, quando p + 1 é múltiplo do intervalo, TAG_CHECKPOINT << 56 | (p + 1) << 16
+ *     seguido da posição depois do lance (32 bytes)
+ * Como os registros têm tamanho fixo, o lugar de cada lance e de cada
+ * checkpoint sai de uma conta, sem varrer o arquivo. O contador do
+ * cabeçalho só avança depois do registro escrito; o que vier depois dele é
+ * ignorado na leitura.
+ *
+ * Não é seguro entre threads: é usado pela Game, na thread que a move.
+ */
+public final class MoveJournal implements Closeable {
+    public static final int CHECKPOINT_INTERVAL = 64;
+
+    private static final long MAGIC = 0x43484a524e4c3031L; // "CHJRNL01"
+    private static final int HEADER_BYTES = 64;
+    private static final int INTERVAL_OFFSET = 8, COUNT_OFFSET = 16, START_OFFSET = 24;
+    private static final int RECORD_BYTES = 8;
+    private static final int CHECKPOINT_BYTES = RECORD_BYTES + PositionCodec.BYTES;
+    private static final long TAG_MOVE = 'M', TAG_CHECKPOINT = 'C';
+    private static final int INITIAL_BYTES = 64 * 1024; // uns 7 mil lances antes de crescer
+
+    private final FileChannel channel;
+    private MappedByteBuffer map;
+    private int count;
+    private final AtomicBoolean syncing = new AtomicBoolean();
+
+    private MoveJournal(FileChannel channel) {
+        this.channel = channel;
+    }
+
+    /**
+     * Abre (ou cria) o diário em file. Se já houver uma partida gravada,
+     * size() diz quantos lances dela são válidos (ver Game.resume).
+     */
+    public static MoveJournal open(Path file) throws IOException {
+        FileChannel ch = FileChannel.open(file, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MoveJournal j = new MoveJournal(ch);
+            long size = ch.size();
+            j.map = ch.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(INITIAL_BYTES, size));
+            if (size >= HEADER_BYTES && j.map.getLong(0) == MAGIC
+                    && j.map.getInt(INTERVAL_OFFSET) == CHECKPOINT_INTERVAL) {
+                j.count = j.validCount((int) Math.min(j.map.getLong(COUNT_OFFSET), Integer.MAX_VALUE));
+                j.map.putLong(COUNT_OFFSET, j.count);
+            } else {
+                j.map.putLong(0, MAGIC).putInt(INTERVAL_OFFSET, CHECKPOINT_INTERVAL);
+                j.restart(Fen.parse(Fen.START));
+            }
+            return j;
+        } catch (IOException | RuntimeException e) {
+            ch.close();
+            throw e;
+        }
+    }
+
+    /** Lances gravados. */
+    public int size() { return count; }
+
+    /** Lance gravado no ply (0 = primeiro lance), codificado como em Moves. */
+    public int move(int ply) {
+        if (ply < 0 || ply >= count) throw new IndexOutOfBoundsException("ply " + ply + " de " + count);
+        return (int) (map.getLong(moveOffset(ply)) & 0xFFFF);
+    }
+
+    /**
+     * Troca o conteúdo de into pela posição gravada mais recente até maxPly
+     * (um checkpoint ou a posição inicial) e devolve o ply dela; o resto sai
+     * de refazer os lances a partir daí.
+     */
+    public int checkpoint(int maxPly, Board into) {
+        int ply = Math.min(maxPly, count) / CHECKPOINT_INTERVAL * CHECKPOINT_INTERVAL;
+        map.position(ply == 0 ? START_OFFSET : moveOffset(ply) - PositionCodec.BYTES);
+        PositionCodec.decode(map, into);
+        return ply;
+    }
+
+    /** Descarta o que havia e começa uma partida nova a partir de start. */
+    void restart(Board start) {
+        count = 0;
+        map.putLong(COUNT_OFFSET, 0);
+        map.position(START_OFFSET);
+        PositionCodec.encode(start, map);
+    }
+
+    /** Grava o lance que acabou de ser feito; after é a posição depois dele. */
+    void append(int move, Board after) {
+        int ply = count;
+        int end = moveOffset(ply + 1); // já conta o checkpoint, se houver
+        if (end > map.capacity()) grow(end);
+        map.putLong(moveOffset(ply), TAG_MOVE << 56 | (long) ply << 16 | (move & 0xFFFF));
+        if ((ply + 1) % CHECKPOINT_INTERVAL == 0) {
+            map.putLong(end - CHECKPOINT_BYTES, TAG_CHECKPOINT << 56 | (long) (ply + 1) << 16);
+            map.position(end - PositionCodec.BYTES);
+            PositionCodec.encode(after, map);
+            sync();
+        }
+        count = ply + 1;
+        map.putLong(COUNT_OFFSET, count);
+    }
+
+    /** Espera o conteúdo chegar ao disco e fecha o arquivo. */
+    @Override
+    public void close() throws IOException {
+        map.force();
+        channel.close();
+    }
+
+    // Registro do lance ply: antes dele há ply lances e ply / intervalo checkpoints
+    private static int moveOffset(int ply) {
+        return HEADER_BYTES + ply * RECORD_BYTES + ply / CHECKPOINT_INTERVAL * CHECKPOINT_BYTES;
+    }
+
+    // Quantos dos n primeiros registros estão inteiros (um fim cortado é descartado)
+    private int validCount(int n) {
+        for (int ply = 0; ply < n; ply++) {
+            int at = moveOffset(ply);
+            if (at + RECORD_BYTES > map.capacity()) return ply;
+            long rec = map.getLong(at);
+            if (rec >>> 56 != TAG_MOVE || (rec >>> 16 & 0xFFFFFFFFL) != ply) return ply;
+            if ((ply + 1) % CHECKPOINT_INTERVAL == 0) {
+                int cp = moveOffset(ply + 1) - CHECKPOINT_BYTES;
+                if (cp + CHECKPOINT_BYTES > map.capacity()) return ply;
+                rec = map.getLong(cp);
+                if (rec >>> 56 != TAG_CHECKPOINT || (rec >>> 16 & 0xFFFFFFFFL) != ply + 1) return ply;
+            }
+        }
+        return n;
+    }
+
+    // Remapeia maior (o arquivo cresce junto); raro: o tamanho dobra a cada vez
+    private void grow(int needed) {
+        try {
+            map = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(needed, 2L * map.capacity()));
+        } catch (IOException e) {
+            throw new IllegalStateException("Não foi possível aumentar o diário", e);
+        }
+    }
+
+    // force() numa virtual thread, no máximo um por vez: o lance não espera o disco
+    private void sync() {
+        if (!syncing.compareAndSet(false, true)) return;
+        MappedByteBuffer m = map;
+        Thread.ofVirtual().name("journal-sync").start(() -> {
+            try {
+                m.force();
+            } finally {
+                syncing.set(false);
+            }
+        });
+    }
+}
@@ -0,0 +1,94 @@
+package controller;
+
+import model.board.MoveList;
+import model.board.Moves;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Livro de aberturas binário, lido direto do arquivo mapeado em memória
+ * (nada é carregado no heap). Mesmo leiaute do formato Polyglot: entradas
+ * de 16 bytes big-endian, ordenadas pela chave sem sinal:
+ *
+ *   chave 8 | lance 2 | peso 2 | reservado 4
+ *
+ * A chave é a nossa chave de Zobrist (Board.key()) e o lance é o int de
+ * {@link Moves} (cabe em 16 bits), então o arquivo não é intercambiável com
+ * livros Polyglot de outros programas. Ver OpeningBookBuilder.
+ */
+public final class OpeningBook {
+    static final int ENTRY_BYTES = 16;
+
+    private final MappedByteBuffer data;
+    private final int entries;
+
+    private OpeningBook(MappedByteBuffer data) {
+        this.data = data;
+        this.entries = data.capacity() / ENTRY_BYTES;
+    }
+
+    public static OpeningBook open(Path file) throws IOException {
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (ch.size() > Integer.MAX_VALUE) throw new IOException("Livro grande demais: " + file);
+            return new OpeningBook(ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size()));
+        }
+    }
+
+    /** Abre o livro se o arquivo existir e for legível; senão devolve null. */
+    public static OpeningBook openIfExists(Path file) {
+        if (!Files.isRegularFile(file)) return null;
+        try {
+            return open(file);
+        } catch (IOException e) {
+            System.err.println("Livro de aberturas ignorado: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /** Número de entradas (posição, lance) do livro. */
+    public int size() { return entries; }
+
+    /**
+     * Lances do livro para a posição atual de game, sorteados com
+     * probabilidade proporcional ao peso; Moves.NONE se a posição não está
+     * no livro. Lances que não forem legais na posição (colisão de chave,
+     * livro de outra versão) são ignorados.
+     */
+    public int pick(Game game, Random random) {
+        long key = game.positionKey();
+        int first = lowerBound(key);
+        MoveList legal = null;
+        int total = 0, chosen = Moves.NONE;
+        for (int i = first; i < entries && data.getLong(i * ENTRY_BYTES) == key; i++) {
+            int move = data.getShort(i * ENTRY_BYTES + 8) & 0xFFFF;
+            int weight = data.getShort(i * ENTRY_BYTES + 10) & 0xFFFF;
+            if (weight == 0) continue;
+            if (legal == null) {
+                legal = new MoveList();
+                game.legalMoves(legal);
+            }
+            if (!legal.contains(move)) continue;
+            // Amostragem de reservatório com pesos: uma passada, sem lista intermediária
+            total += weight;
+            if (random.nextInt(total) < weight) chosen = move;
+        }
+        return chosen;
+    }
+
+    // Primeira entrada com chave >= key (ordem sem sinal), por busca binária no arquivo
+    private int lowerBound(long key) {
+        int lo = 0, hi = entries;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (Long.compareUnsigned(data.getLong(mid * ENTRY_BYTES), key) < 0) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+}
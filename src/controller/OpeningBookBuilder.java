@@ -0,0 +1,110 @@
+package controller;
+
+import model.board.Board;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monta um {@link OpeningBook} a partir de arquivos PGN locais. Cada lance
+ * das primeiras maxPlies meias-jogadas de cada partida soma peso à entrada
+ * (posição, lance): 2 se quem jogou venceu, 1 no empate ou resultado
+ * desconhecido, 0 na derrota. Lances que só aparecem em derrotas ficam fora.
+ *
+ * Uso: java controller.OpeningBookBuilder saida.bin [--plies N] partidas.pgn...
+ */
+public final class OpeningBookBuilder {
+    public static final int DEFAULT_MAX_PLIES = 16;
+
+    private final int maxPlies;
+    // chave -> (lance -> peso)
+    private final Map<Long, Map<Integer, Integer>> weights = new HashMap<>();
+    private int games;
+
+    public OpeningBookBuilder(int maxPlies) {
+        this.maxPlies = maxPlies;
+    }
+
+    public int games() { return games; }
+
+    /** Lê todas as partidas de um PGN (ver PgnReader); devolve quantas foram aproveitadas. */
+    public int addPgn(Path file) throws IOException {
+        int before = games;
+        PgnReader.read(file, 1, this::addGame);
+        return games - before;
+    }
+
+    // Partida já validada pelo PgnReader; as que partem de uma FEN não entram no livro
+    private void addGame(PgnGame game) {
+        if (game.tag("FEN") != null) return;
+        Board board = new Game().board();
+        int plies = Math.min(maxPlies, game.moveCount());
+        for (int i = 0; i < plies; i++) {
+            add(board, game.move(i), game.result());
+            board.makeMove(game.move(i));
+        }
+        games++;
+    }
+
+    private void add(Board board, int move, String result) {
+        boolean white = board.whiteToMove();
+        int weight = switch (result) {
+            case "1-0" -> white ? 2 : 0;
+            case "0-1" -> white ? 0 : 2;
+            default -> 1;
+        };
+        if (weight > 0) weights.computeIfAbsent(board.key(), k -> new HashMap<>()).merge(move, weight, Integer::sum);
+    }
+
+    /** Grava o livro: entradas ordenadas pela chave, maior peso primeiro. */
+    public int write(Path out) throws IOException {
+        List<Long> keys = new ArrayList<>(weights.keySet());
+        keys.sort(Long::compareUnsigned);
+        int count = 0;
+        for (Map<Integer, Integer> m : weights.values()) count += m.size();
+
+        ByteBuffer buf = ByteBuffer.allocate(count * OpeningBook.ENTRY_BYTES); // big-endian, como no Polyglot
+        for (long key : keys) {
+            Map<Integer, Integer> moves = weights.get(key);
+            int max = moves.values().stream().mapToInt(Integer::intValue).max().orElse(1);
+            // Pesos cabem em 16 bits: se preciso, reescala os lances da posição juntos
+            double scale = max > 0xFFFF ? 65535.0 / max : 1.0;
+            moves.entrySet().stream()
+                    .sorted(Map.Entry.<Integer, Integer>comparingByValue().reversed())
+                    .forEach(e -> buf.putLong(key)
+                            .putShort((short) (int) e.getKey())
+                            .putShort((short) Math.max(1, (int) (e.getValue() * scale)))
+                            .putInt(0));
+        }
+        buf.flip();
+        try (FileChannel ch = FileChannel.open(out, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buf.hasRemaining()) ch.write(buf);
+        }
+        return count;
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Uso: java controller.OpeningBookBuilder saida.bin [--plies N] partidas.pgn...");
+            System.exit(1);
+        }
+        int plies = DEFAULT_MAX_PLIES;
+        List<Path> inputs = new ArrayList<>();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--plies")) plies = Integer.parseInt(args[++i]);
+            else inputs.add(Path.of(args[i]));
+        }
+        OpeningBookBuilder builder = new OpeningBookBuilder(plies);
+        for (Path p : inputs) builder.addPgn(p);
+        int entries = builder.write(Path.of(args[0]));
+        System.out.println(builder.games() + " partidas, " + entries + " entradas em " + args[0]);
+    }
+}
@@ -0,0 +1,189 @@
+package controller;
+
+import model.board.Board;
+import model.board.MoveGenerator;
+import model.board.MoveList;
+import model.board.Moves;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Perft: conta as folhas da árvore de lances legais até uma profundidade.
+ * Os totais da posição inicial (20, 400, 8902, 197281, 4865609, 119060324...)
+ * são conhecidos, então qualquer erro no gerador ou no make/unmake aparece
+ * como diferença; o "divide" (contagem por lance da raiz) mostra onde.
+ *
+ * O modo paralelo divide a árvore em tarefas fork-join (cada uma na sua
+ * cópia do tabuleiro) e guarda subtotais numa tabela de hash compartilhada,
+ * indexada pela chave de Zobrist e pela profundidade restante, pois a mesma
+ * posição aparece por várias ordens de lances.
+ *
+ * Uso: java controller.Perft [profundidade] [threads] [hashMb]
+ */
+public final class Perft {
+    // Abaixo desta profundidade restante a tarefa não se divide mais
+    private static final int SPLIT_DEPTH = 3;
+
+    private Perft() { }
+
+    /** Folhas até depth plies, sequencial e sem hash. O tabuleiro volta como estava. */
+    public static long perft(Board board, int depth) {
+        return count(board, depth, lists(depth), null);
+    }
+
+    /** Folhas por lance da raiz, em notação de coordenadas (ex.: "e2e4"). */
+    public static Map<String, Long> divide(Board board, int depth) {
+        Map<String, Long> out = new LinkedHashMap<>();
+        MoveList[] lists = lists(depth);
+        MoveGenerator.generateLegal(board, lists[depth]);
+        MoveList root = lists[depth];
+        for (int i = 0; i < root.size(); i++) {
+            int m = root.get(i);
+            board.makeMove(m);
+            out.put(Moves.toString(m), depth <= 1 ? 1 : count(board, depth - 1, lists, null));
+            board.unmakeMove();
+        }
+        return out;
+    }
+
+    /**
+     * Folhas até depth plies em threads threads (fork-join), com uma tabela
+     * de hash de hashMb megabytes (0 = sem hash). O tabuleiro não é alterado.
+     */
+    public static long perftParallel(Board board, int depth, int threads, int hashMb) {
+        Hash hash = hashMb > 0 ? new Hash(hashMb) : null;
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try {
+            return pool.invoke(new Task(board.copy(), depth, hash));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static long count(Board b, int depth, MoveList[] lists, Hash hash) {
+        if (depth == 0) return 1;
+        MoveList moves = lists[depth];
+        MoveGenerator.generateLegal(b, moves);
+        if (depth == 1) return moves.size(); // contagem em bloco: não precisa aplicar as folhas
+
+        long key = b.key();
+        if (hash != null) {
+            long n = hash.probe(key, depth);
+            if (n >= 0) return n;
+        }
+        long nodes = 0;
+        for (int i = 0; i < moves.size(); i++) {
+            b.makeMove(moves.get(i));
+            nodes += count(b, depth - 1, lists, hash);
+            b.unmakeMove();
+        }
+        if (hash != null) hash.store(key, depth, nodes);
+        return nodes;
+    }
+
+    private static MoveList[] lists(int depth) {
+        MoveList[] lists = new MoveList[Math.max(1, depth + 1)];
+        for (int i = 0; i < lists.length; i++) lists[i] = new MoveList();
+        return lists;
+    }
+
+    // RecursiveTask é Serializable, mas as tarefas nunca saem do pool
+    private static final class Task extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Board board;
+        private final int depth;
+        private final transient Hash hash;
+
+        Task(Board board, int depth, Hash hash) {
+            this.board = board;
+            this.depth = depth;
+            this.hash = hash;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth <= SPLIT_DEPTH) return count(board, depth, lists(depth), hash);
+            long key = board.key();
+            if (hash != null) {
+                long n = hash.probe(key, depth);
+                if (n >= 0) return n;
+            }
+            MoveList moves = new MoveList();
+            MoveGenerator.generateLegal(board, moves);
+            Task[] children = new Task[moves.size()];
+            for (int i = 0; i < moves.size(); i++) {
+                Board child = board.copy();
+                child.makeMove(moves.get(i));
+                children[i] = new Task(child, depth - 1, hash);
+            }
+            invokeAll(children);
+            long nodes = 0;
+            for (Task t : children) nodes += t.join();
+            if (hash != null) hash.store(key, depth, nodes);
+            return nodes;
+        }
+    }
+
+    /**
+     * Tabela (chave, profundidade) -> folhas, sem travas: como na
+     * TranspositionTable, cada entrada é (chave XOR dados, dados), então uma
+     * escrita concorrente pela metade não bate com a chave e é ignorada.
+     * Dados: folhas << 8 | profundidade.
+     */
+    private static final class Hash {
+        private final long[] table;
+        private final int mask;
+
+        Hash(int sizeMb) {
+            long entries = Long.highestOneBit(sizeMb * 1024L * 1024L / 16);
+            entries = Math.min(entries, 1L << 28);
+            table = new long[(int) entries * 2];
+            mask = (int) entries - 1;
+        }
+
+        long probe(long key, int depth) {
+            int i = index(key);
+            long data = table[i + 1];
+            return (table[i] ^ data) == key && (data & 0xFF) == depth ? data >>> 8 : -1;
+        }
+
+        void store(long key, int depth, long nodes) {
+            int i = index(key);
+            long data = nodes << 8 | depth;
+            table[i] = key ^ data;
+            table[i + 1] = data;
+        }
+
+        private int index(long key) {
+            return ((int) (key ^ (key >>> 32)) & mask) * 2;
+        }
+    }
+
+    public static void main(String[] args) {
+        int depth = args.length > 0 ? Integer.parseInt(args[0]) : 5;
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        int hashMb = args.length > 2 ? Integer.parseInt(args[2]) : 64;
+        Board board = new Game().board();
+
+        long start = System.nanoTime();
+        long total = 0;
+        for (Map.Entry<String, Long> e : divide(board, depth).entrySet()) {
+            System.out.println(e.getKey() + ": " + e.getValue());
+            total += e.getValue();
+        }
+        report("sequencial", total, System.nanoTime() - start);
+
+        start = System.nanoTime();
+        total = perftParallel(board, depth, threads, hashMb);
+        report("paralelo (" + threads + " threads, hash " + hashMb + " MB)", total, System.nanoTime() - start);
+    }
+
+    private static void report(String mode, long nodes, long nanos) {
+        long ms = Math.max(1, nanos / 1_000_000);
+        System.out.printf("%s: %d nós em %d ms (%d nós/s)%n", mode, nodes, ms, nodes * 1000 / ms);
+    }
+}
@@ -0,0 +1,62 @@
+package controller;
+
+import model.board.Board;
+import model.board.Fen;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Uma partida lida de um PGN (ver PgnReader): cabeçalhos, resultado e os
+ * lances já validados contra as regras, em int (ver Moves). Se algum lance
+ * não pôde ser entendido, a partida para nele e errorPly diz onde.
+ */
+public final class PgnGame {
+    private final Map<String, String> headers;
+    private final int[] moves;
+    private final String result;
+    private final int errorPly;
+
+    PgnGame(Map<String, String> headers, int[] moves, String result, int errorPly) {
+        this.headers = headers;
+        this.moves = moves;
+        this.result = result;
+        this.errorPly = errorPly;
+    }
+
+    public Map<String, String> headers() { return Collections.unmodifiableMap(headers); }
+
+    /** Valor do cabeçalho name (ex.: "White", "Event"), ou null. */
+    public String tag(String name) { return headers.get(name); }
+
+    /** "1-0", "0-1", "1/2-1/2" ou "*". */
+    public String result() { return result; }
+
+    public int moveCount() { return moves.length; }
+
+    public int move(int ply) { return moves[ply]; }
+
+    public int[] moves() { return Arrays.copyOf(moves, moves.length); }
+
+    /** Todos os lances foram entendidos? */
+    public boolean isComplete() { return errorPly < 0; }
+
+    /** Ply do primeiro lance não entendido, ou -1. */
+    public int errorPly() { return errorPly; }
+
+    /** Posição inicial: o cabeçalho FEN, se houver, senão a posição padrão. */
+    public String startFen() {
+        String fen = headers.get("FEN");
+        return fen != null ? fen : Fen.START;
+    }
+
+    /**
+     * Monta em into a posição depois de plies lances (0 = posição inicial),
+     * reaproveitando o tabuleiro; útil para extrair posições da partida.
+     */
+    public void replay(Board into, int plies) {
+        Fen.load(into, startFen());
+        for (int i = 0; i < Math.min(plies, moves.length); i++) into.makeMove(moves[i]);
+    }
+}
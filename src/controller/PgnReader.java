@@ -0,0 +1,343 @@
+package controller;
+
+import model.board.Board;
+import model.board.Fen;
+import model.board.MoveList;
+import model.board.Moves;
+import model.board.San;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Leitura de arquivos PGN de qualquer tamanho em fluxo: a memória usada não
+ * depende do arquivo. Cada partida é repassada pelas regras direto no Board
+ * (SAN -> lance legal -> makeMove), sem passar por Game, e entregue pronta
+ * ao Listener.
+ *
+ * Uma thread lê o arquivo por um FileChannel com buffer de 1 MB e corta o
+ * texto em lotes de partidas inteiras (uma partida nova começa num
+ * cabeçalho "[" depois de lances). Com threads > 1, os lotes vão por uma
+ * fila limitada para threads que fazem o trabalho pesado (SAN e regras);
+ * o Listener é então chamado dessas threads, ao mesmo tempo.
+ *
+ * O texto é lido como ISO-8859-1 (cada byte um caractere), o que basta para
+ * os lances e não quebra nomes em UTF-8 além de acentos trocados.
+ *
+ * Uso: java controller.PgnReader partidas.pgn [threads]
+ */
+public final class PgnReader {
+    private static final int BUFFER_BYTES = 1 << 20;
+    private static final int BATCH_GAMES = 256;
+    private static final String END = new String(); // marca de fim da fila (comparada por identidade)
+
+    /** Recebe cada partida lida. Com threads > 1, precisa ser seguro entre threads. */
+    public interface Listener {
+        void game(PgnGame game);
+    }
+
+    /** Totais de uma leitura. */
+    public static final class Stats {
+        private final long games, plies, errors, bytes, nanos;
+
+        Stats(long games, long plies, long errors, long bytes, long nanos) {
+            this.games = games;
+            this.plies = plies;
+            this.errors = errors;
+            this.bytes = bytes;
+            this.nanos = nanos;
+        }
+
+        public long games() { return games; }
+        public long plies() { return plies; }
+        /** Partidas com algum lance não entendido (entregues até esse lance). */
+        public long errors() { return errors; }
+        public long bytes() { return bytes; }
+        public long elapsedMillis() { return nanos / 1_000_000; }
+        public double gamesPerSecond() { return nanos == 0 ? 0 : games * 1e9 / nanos; }
+        public double pliesPerSecond() { return nanos == 0 ? 0 : plies * 1e9 / nanos; }
+
+        @Override
+        public String toString() {
+            return String.format("%d partidas (%d com erro), %d plies em %d ms: %.0f partidas/s, %.0f plies/s, %.1f MB/s",
+                    games, errors, plies, elapsedMillis(), gamesPerSecond(), pliesPerSecond(),
+                    nanos == 0 ? 0 : bytes * 1e3 / nanos);
+        }
+    }
+
+    private PgnReader() { }
+
+    /** Lê file inteiro, entregando as partidas a listener; threads <= 1 faz tudo na thread de quem chama. */
+    public static Stats read(Path file, int threads, Listener listener) throws IOException {
+        long start = System.nanoTime();
+        Counters counters = new Counters();
+        AtomicReference<RuntimeException> failure = new AtomicReference<>();
+        BlockingQueue<String> queue = threads > 1 ? new ArrayBlockingQueue<>(2 * threads) : null;
+        Thread[] workers = new Thread[threads > 1 ? threads : 0];
+        for (int i = 0; i < workers.length; i++) {
+            Parser parser = new Parser(listener, counters);
+            workers[i] = new Thread(() -> drain(queue, parser, failure), "pgn-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+        Parser inline = queue == null ? new Parser(listener, counters) : null;
+
+        long bytes = 0;
+        try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buf = ByteBuffer.allocateDirect(BUFFER_BYTES);
+            StringBuilder batch = new StringBuilder(1 << 18);
+            int lineStart = 0, games = 0;
+            boolean movetext = false; // a partida em curso já tem lances
+            int n;
+            while ((n = ch.read(buf)) >= 0) {
+                bytes += n;
+                buf.flip();
+                while (buf.hasRemaining()) {
+                    char c = (char) (buf.get() & 0xFF);
+                    batch.append(c);
+                    if (c != '\n') continue;
+                    char first = batch.charAt(lineStart);
+                    if (first == '[') {
+                        if (movetext && ++games >= BATCH_GAMES) {
+                            // Corta antes deste cabeçalho: o lote termina numa partida inteira
+                            emit(batch.substring(0, lineStart), queue, inline, failure);
+                            batch.delete(0, lineStart);
+                            games = 0;
+                        }
+                        movetext = false;
+                    } else if (first != '%' && first > ' ') {
+                        movetext = true;
+                    }
+                    lineStart = batch.length();
+                }
+                buf.clear();
+            }
+            if (batch.length() > 0) emit(batch.toString(), queue, inline, failure);
+        } finally {
+            for (int i = 0; i < workers.length; i++) put(queue, END);
+            for (Thread w : workers) {
+                try {
+                    w.join();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        if (failure.get() != null) throw failure.get();
+        return new Stats(counters.games.sum(), counters.plies.sum(), counters.errors.sum(), bytes,
+                System.nanoTime() - start);
+    }
+
+    private static void emit(String text, BlockingQueue<String> queue, Parser inline,
+                             AtomicReference<RuntimeException> failure) {
+        if (inline != null) inline.parse(text);
+        else if (failure.get() == null) put(queue, text);
+    }
+
+    private static void put(BlockingQueue<String> queue, String text) {
+        try {
+            queue.put(text);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void drain(BlockingQueue<String> queue, Parser parser, AtomicReference<RuntimeException> failure) {
+        try {
+            for (String text; (text = queue.take()) != END; ) {
+                try {
+                    if (failure.get() == null) parser.parse(text);
+                } catch (RuntimeException e) {
+                    failure.compareAndSet(null, e); // continua esvaziando a fila para o leitor não travar
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static final class Counters {
+        final LongAdder games = new LongAdder(), plies = new LongAdder(), errors = new LongAdder();
+    }
+
+    /** Analisa lotes de texto PGN; um por thread (guarda o tabuleiro e os buffers). */
+    private static final class Parser {
+        private final Listener listener;
+        private final Counters counters;
+        private final Board board = new Board();
+        private final MoveList legal = new MoveList();
+
+        // Partida em curso
+        private Map<String, String> headers = new LinkedHashMap<>();
+        private int[] moves = new int[256];
+        private int count;
+        private String result;
+        private int errorPly = -1;
+        private boolean open;     // algo desta partida já foi lido
+        private boolean inMoves;  // já passou dos cabeçalhos
+        private boolean started;  // tabuleiro montado na posição inicial
+
+        Parser(Listener listener, Counters counters) {
+            this.listener = listener;
+            this.counters = counters;
+        }
+
+        void parse(String text) {
+            int i = 0, n = text.length();
+            boolean lineStart = true;
+            while (i < n) {
+                char c = text.charAt(i);
+                if (lineStart && c == '[') {
+                    if (inMoves) finish();
+                    i = header(text, i);
+                    continue;
+                }
+                if (lineStart && c == '%') { // linha de escape
+                    i = lineEnd(text, i);
+                    continue;
+                }
+                lineStart = c == '\n';
+                if (c <= ' ') {
+                    i++;
+                } else if (c == '{') {
+                    int close = text.indexOf('}', i);
+                    i = close < 0 ? n : close + 1;
+                } else if (c == ';') {
+                    i = lineEnd(text, i);
+                } else if (c == '(') {
+                    i = skipVariation(text, i);
+                } else if (c == ')' || c == '$') {
+                    i = c == ')' ? i + 1 : tokenEnd(text, i);
+                } else {
+                    int end = tokenEnd(text, i);
+                    token(text, i, end);
+                    i = end;
+                }
+            }
+            finish();
+        }
+
+        // [Nome "Valor"] até o fim da linha
+        private int header(String text, int i) {
+            int end = lineEnd(text, i);
+            int space = text.indexOf(' ', i);
+            int q1 = text.indexOf('"', i);
+            if (space > 0 && space < end && q1 > 0 && q1 < end) {
+                StringBuilder value = new StringBuilder();
+                for (int j = q1 + 1; j < end; j++) {
+                    char c = text.charAt(j);
+                    if (c == '\\' && j + 1 < end) c = text.charAt(++j);
+                    else if (c == '"') break;
+                    value.append(c);
+                }
+                headers.put(text.substring(i + 1, space), value.toString());
+                open = true;
+            }
+            return end;
+        }
+
+        private void token(String text, int s, int e) {
+            // Número do lance colado ou não: "12.", "12...", "12.e4"
+            int j = s;
+            while (j < e && Character.isDigit(text.charAt(j))) j++;
+            if (j < e && text.charAt(j) == '.') {
+                while (j < e && text.charAt(j) == '.') j++;
+                s = j;
+            }
+            open = true;
+            inMoves = true;
+            if (j == e) return; // só o número
+            String t = text.substring(s, e);
+            if (t.equals("1-0") || t.equals("0-1") || t.equals("1/2-1/2") || t.equals("*")) {
+                result = t;
+                finish();
+                return;
+            }
+            if (errorPly >= 0 || t.equals("e.p.")) return;
+            if (!started) {
+                started = true;
+                try {
+                    Fen.load(board, headers.getOrDefault("FEN", Fen.START));
+                } catch (IllegalArgumentException ex) {
+                    errorPly = 0;
+                    return;
+                }
+            }
+            int move = San.parse(board, t, legal);
+            if (move == Moves.NONE) {
+                errorPly = count;
+                return;
+            }
+            if (count == moves.length) moves = Arrays.copyOf(moves, count * 2);
+            moves[count++] = move;
+            board.makeMove(move);
+        }
+
+        private void finish() {
+            if (!open) return;
+            String res = result != null ? result : headers.getOrDefault("Result", "*");
+            PgnGame game = new PgnGame(headers, Arrays.copyOf(moves, count), res, errorPly);
+            counters.games.increment();
+            counters.plies.add(count);
+            if (errorPly >= 0) counters.errors.increment();
+            headers = new LinkedHashMap<>();
+            count = 0;
+            result = null;
+            errorPly = -1;
+            open = inMoves = started = false;
+            listener.game(game);
+        }
+
+        // Pula "( ... )" com aninhamento e comentários dentro
+        private static int skipVariation(String text, int i) {
+            int depth = 0, n = text.length();
+            for (; i < n; i++) {
+                char c = text.charAt(i);
+                if (c == '{') {
+                    int close = text.indexOf('}', i);
+                    if (close < 0) return n;
+                    i = close;
+                } else if (c == '(') {
+                    depth++;
+                } else if (c == ')' && --depth == 0) {
+                    return i + 1;
+                }
+            }
+            return n;
+        }
+
+        private static int tokenEnd(String text, int i) {
+            int n = text.length();
+            while (i < n) {
+                char c = text.charAt(i);
+                if (c <= ' ' || c == '{' || c == '(' || c == ')' || c == ';') break;
+                i++;
+            }
+            return i;
+        }
+
+        private static int lineEnd(String text, int i) {
+            int nl = text.indexOf('\n', i);
+            return nl < 0 ? text.length() : nl;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Uso: java controller.PgnReader partidas.pgn [threads]");
+            System.exit(1);
+        }
+        int threads = args.length > 1 ? Integer.parseInt(args[1]) : Runtime.getRuntime().availableProcessors();
+        System.out.println(read(Path.of(args[0]), threads, game -> { }));
+    }
+}
@@ -0,0 +1,420 @@
+package controller;
+
+import model.board.Board;
+import model.board.MoveGenerator;
+import model.board.MoveList;
+import model.board.Moves;
+import model.board.San;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Busca alfa-beta (negamax) do nível Difícil. Os valores são sempre do ponto
+ * de vista de quem joga no nó. Uma instância por thread: guarda os buffers de
+ * lances por ply, os killers e a tabela de história; a tabela de transposição
+ * pode ser compartilhada.
+ *
+ * A raiz é buscada por aprofundamento iterativo (1, 2, 3... plies) até a
+ * profundidade máxima ou até o prazo; o resultado é sempre o melhor lance da
+ * última iteração completa, e cada iteração ordena a seguinte via TT.
+ *
+ * Várias instâncias podem buscar a mesma posição ao mesmo tempo (Lazy SMP):
+ * cada uma em sua cópia do jogo, compartilhando só a TT; stop() pode ser
+ * chamado de outra thread e é percebido na próxima checagem de relógio.
+ *
+ * Multi-PV (análise): com setMultiPv(k, ...), a raiz mantém valores exatos
+ * para os k melhores lances, não só para o primeiro: cada lance é buscado
+ * com a janela aberta no k-ésimo melhor valor até ali, em vez do melhor. É
+ * a mesma árvore e a mesma TT, então k linhas custam bem menos que k buscas.
+ * A cada iteração completa, as k linhas vão para o ouvinte.
+ *
+ * Ordem dos lances: lance da TT, capturas por MVV-LVA (vítima mais valiosa,
+ * atacante menos valioso), dois killers por ply e, nos lances quietos, a
+ * tabela de história (lances que já causaram corte em outros ramos).
+ */
+final class Search {
+    static final int INFINITY = 32000;
+    static final int MATE = 31000;
+    static final int MAX_PLY = 64;
+    // Valores de mate: os da busca (até MAX_PLY) e os das tabelas de finais (até 255 plies, ver
+    // Tablebases.probe), que também precisam do ajuste de ply ao entrar e sair da TT
+    private static final int MATE_BOUND = MATE - MAX_PLY - 256;
+
+    private static final int ORDER_TT = 1 << 30;
+    private static final int ORDER_CAPTURE = 1 << 28;
+    private static final int ORDER_KILLER_1 = 1 << 27;
+    private static final int ORDER_KILLER_2 = ORDER_KILLER_1 - 1;
+    private static final int HISTORY_MAX = 1 << 20;
+    // Consulta o relógio a cada 2048 nós (nanoTime não é de graça)
+    private static final int TIME_CHECK_MASK = 2047;
+    // Intervalo mínimo entre duas publicações de SearchStats durante a busca
+    private static final long PUBLISH_INTERVAL_NANOS = 100_000_000L;
+
+    // Valor de ordenação por tipo (P N B R Q K), só para MVV-LVA
+    private static final int[] ORDER_VALUE = {1, 3, 3, 5, 9, 20};
+
+    private final TranspositionTable tt;
+    private final MoveList[] moveLists = new MoveList[MAX_PLY + 1];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[] history = new int[2 * 64 * 64];
+
+    private Game game;
+    private Board board;
+    private long nodes;
+    private int bestScore;
+    private int completedDepth;
+    private int completedScore;
+    private int[] pv = new int[0];
+    private long startTime;
+    private volatile long deadline; // System.nanoTime() limite; pode ser movido por setDeadline
+    private volatile long requestedDeadline = Long.MAX_VALUE; // último setDeadline, vale até clearStop
+    private boolean stopped;
+    private volatile boolean stopRequested;
+    private volatile CancellationToken token = CancellationToken.NONE;
+    private volatile Tablebases tablebases;
+
+    // Multi-PV: linhas pedidas, quem as recebe e os valores da raiz na iteração
+    private int multiPv = 1;
+    private Consumer<AnalysisUpdate> analysisListener;
+    private final int[] rootMoves = new int[MoveList.CAPACITY];
+    private final int[] rootScores = new int[MoveList.CAPACITY];
+    private int rootCount;
+
+    // Estatísticas: consultas/acertos na TT, nós expandidos e cortes beta
+    private long ttProbes, ttHits, expanded, cutoffs;
+    private long lastPublish;
+    private volatile SearchStats stats = SearchStats.EMPTY;
+
+    Search(TranspositionTable tt) {
+        this.tt = tt;
+        for (int i = 0; i < moveLists.length; i++) moveLists[i] = new MoveList();
+    }
+
+    /** Nós visitados na última busca. */
+    long nodes() { return nodes; }
+
+    /** Valor do melhor lance da última busca, do ponto de vista de quem joga. */
+    int bestScore() { return bestScore; }
+
+    /** Profundidade da última iteração completa. */
+    int completedDepth() { return completedDepth; }
+
+    /** Última estatística publicada (seguro de qualquer thread, inclusive durante a busca). */
+    SearchStats stats() { return stats; }
+
+    /** Pede para a busca em andamento parar (seguro de qualquer thread). */
+    void stop() { stopRequested = true; }
+
+    /** Limpa um stop() ou setDeadline anterior; chamar antes de entregar a busca a outra thread. */
+    void clearStop() {
+        stopRequested = false;
+        requestedDeadline = Long.MAX_VALUE;
+    }
+
+    /** Token consultado junto com o relógio; cancelado, a busca para como num stop(). */
+    void setToken(CancellationToken token) { this.token = token; }
+
+    /** Tabelas de finais consultadas nas folhas (null = nenhuma). */
+    void setTablebases(Tablebases tablebases) { this.tablebases = tablebases; }
+
+    /**
+     * Move o prazo da busca em andamento (System.nanoTime()); usado quando o
+     * palpite do ponder se confirma e a busca "sem fim" passa a ter tempo de lance.
+     * Como stop(), vale também para uma busca que ainda não começou.
+     */
+    void setDeadline(long deadlineNanos) {
+        requestedDeadline = deadlineNanos;
+        deadline = deadlineNanos;
+    }
+
+    /**
+     * Próximas buscas ordenam as lines melhores lances da raiz e entregam-nas
+     * a listener a cada iteração (na thread da busca); lines = 1 e listener
+     * null voltam à busca normal.
+     */
+    void setMultiPv(int lines, Consumer<AnalysisUpdate> listener) {
+        this.multiPv = Math.max(1, lines);
+        this.analysisListener = listener;
+    }
+
+    /**
+     * Aprofundamento iterativo na posição atual de game, até maxDepth plies ou
+     * até timeBudgetMillis. Devolve o melhor lance da última iteração completa
+     * (Moves.NONE se não houver lance legal). A primeira iteração sempre termina.
+     * O tabuleiro volta como estava.
+     */
+    int search(Game game, int maxDepth, long timeBudgetMillis) {
+        return search(game, 1, maxDepth, timeBudgetMillis);
+    }
+
+    /**
+     * Como search(game, maxDepth, budget), mas começando em firstDepth: as
+     * threads auxiliares do Lazy SMP começam defasadas para não repetirem
+     * exatamente o trabalho da principal.
+     */
+    int search(Game game, int firstDepth, int maxDepth, long timeBudgetMillis) {
+        long start = System.nanoTime();
+        this.game = game;
+        this.board = game.board();
+        this.startTime = start;
+        this.deadline = start + timeBudgetMillis * 1_000_000L;
+        // Lido depois de gravar deadline: um setDeadline concorrente ou já foi visto aqui ou grava por cima
+        long requested = requestedDeadline;
+        if (requested < deadline) deadline = requested;
+        nodes = 0;
+        completedDepth = 0;
+        completedScore = 0;
+        pv = new int[0];
+        stopped = false;
+        ttProbes = ttHits = expanded = cutoffs = 0;
+        lastPublish = start;
+        stats = new SearchStats(0, 0, 0, 0, 0, 0, 0, pv, true);
+        for (int[] k : killers) k[0] = k[1] = Moves.NONE;
+        for (int i = 0; i < history.length; i++) history[i] >>= 3;
+
+        int bestMove = Moves.NONE;
+        for (int depth = Math.max(1, Math.min(firstDepth, maxDepth)); depth <= Math.min(maxDepth, MAX_PLY); depth++) {
+            int move = searchRoot(depth);
+            if (stopped && completedDepth > 0) break;
+            bestMove = move;
+            completedDepth = depth;
+            completedScore = bestScore;
+            pv = principalVariation(move);
+            publish(true);
+            if (analysisListener != null) publishLines(depth);
+            if (stopped || move == Moves.NONE || Math.abs(bestScore) >= MATE_BOUND) break;
+            // Cada iteração custa algumas vezes a anterior: não começa uma que não vai terminar
+            if (System.nanoTime() - start > (deadline - start) / 2) break;
+        }
+        publish(false);
+        return bestMove;
+    }
+
+    private void publish(boolean running) {
+        long now = System.nanoTime();
+        lastPublish = now;
+        stats = new SearchStats(nodes, (now - startTime) / 1_000_000, completedDepth,
+                completedDepth == 0 ? 0 : Math.pow(nodes, 1.0 / completedDepth),
+                expanded == 0 ? 0 : (double) cutoffs / expanded,
+                ttProbes == 0 ? 0 : (double) ttHits / ttProbes,
+                completedScore, pv, running);
+    }
+
+    // As multiPv melhores linhas da iteração que acabou, em SAN também
+    private void publishLines(int depth) {
+        Integer[] order = new Integer[rootCount];
+        for (int i = 0; i < rootCount; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Integer.compare(rootScores[b], rootScores[a]));
+        List<AnalysisUpdate.Line> lines = new ArrayList<>();
+        for (int i = 0; i < Math.min(multiPv, rootCount); i++) {
+            int[] line = principalVariation(rootMoves[order[i]]);
+            StringBuilder san = new StringBuilder();
+            for (int m : line) {
+                if (!san.isEmpty()) san.append(' ');
+                san.append(San.toSan(board, m));
+                board.makeMove(m);
+            }
+            for (int j = 0; j < line.length; j++) board.unmakeMove();
+            lines.add(new AnalysisUpdate.Line(rootMoves[order[i]], rootScores[order[i]], line, san.toString()));
+        }
+        analysisListener.accept(new AnalysisUpdate(depth, nodes, (System.nanoTime() - startTime) / 1_000_000,
+                board.whiteToMove(), lines));
+    }
+
+    // Linha esperada a partir da raiz: o lance escolhido e, depois, os lances
+    // da TT enquanto forem legais (para em repetição ou na profundidade da iteração)
+    private int[] principalVariation(int first) {
+        int[] line = new int[completedDepth];
+        int n = 0;
+        int move = first;
+        while (move != Moves.NONE && n < line.length) {
+            MoveList moves = moveLists[n];
+            game.legalMoves(moves);
+            if (!moves.contains(move)) break;
+            line[n++] = move;
+            board.makeMove(move);
+            if (board.repetitionCount() > 0) break;
+            long entry = tt.probe(board.key());
+            move = entry == 0 ? Moves.NONE : TranspositionTable.move(entry);
+        }
+        for (int i = 0; i < n; i++) board.unmakeMove();
+        return Arrays.copyOf(line, n);
+    }
+
+    private int searchRoot(int depth) {
+        MoveList moves = moveLists[0];
+        game.legalMoves(moves);
+        long key = board.key();
+        long entry = tt.probe(key);
+        orderMoves(moves, entry != 0 ? TranspositionTable.move(entry) : Moves.NONE, 0);
+
+        int bestMove = Moves.NONE;
+        int alpha = -INFINITY;
+        int best = -INFINITY;
+        // Multi-PV: os multiPv melhores valores até aqui, do maior para o menor
+        int[] top = new int[multiPv];
+        Arrays.fill(top, -INFINITY);
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.pickBest(i);
+            board.makeMove(move);
+            int score = -alphaBeta(depth - 1, 1, -INFINITY, -(multiPv > 1 ? top[multiPv - 1] : alpha));
+            board.unmakeMove();
+            if (stopped && completedDepth > 0) return Moves.NONE;
+            rootMoves[i] = move;
+            rootScores[i] = score;
+            if (multiPv > 1) insertTop(top, score);
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                alpha = Math.max(alpha, score);
+            }
+        }
+        rootCount = moves.size();
+        bestScore = best;
+        if (bestMove != Moves.NONE) {
+            tt.store(key, bestMove, toTT(best, 0), depth, TranspositionTable.EXACT);
+        }
+        return bestMove;
+    }
+
+    // Insere score em top (decrescente), descartando o menor
+    private static void insertTop(int[] top, int score) {
+        int i = top.length - 1;
+        if (score <= top[i]) return;
+        while (i > 0 && top[i - 1] < score) {
+            top[i] = top[i - 1];
+            i--;
+        }
+        top[i] = score;
+    }
+
+    private int alphaBeta(int depth, int ply, int alpha, int beta) {
+        if ((++nodes & TIME_CHECK_MASK) == 0) {
+            long now = System.nanoTime();
+            if (stopRequested || token.isCancelled() || now > deadline) stopped = true;
+            if (now - lastPublish > PUBLISH_INTERVAL_NANOS) publish(true);
+        }
+        if (stopped && completedDepth > 0) return 0; // valor descartado pela raiz
+        // Repetição ou regra dos 50 lances dentro da árvore: empate
+        if (board.halfmoveClock() >= 100 || board.repetitionCount() > 0) return 0;
+        // Final coberto pelas tabelas: valor exato, sem descer mais
+        Tablebases tb = tablebases;
+        if (tb != null && Long.bitCount(board.occupied()) <= Tablebases.MAX_PIECES) {
+            int v = tb.probe(board);
+            if (v != Tablebases.UNKNOWN) return v > 0 ? v - ply : v < 0 ? v + ply : 0;
+        }
+        if (depth <= 0 || ply >= MAX_PLY) return evaluate();
+
+        int alphaOrig = alpha;
+        long key = board.key();
+        long entry = tt.probe(key);
+        ttProbes++;
+        int ttMove = Moves.NONE;
+        if (entry != 0) {
+            ttHits++;
+            ttMove = TranspositionTable.move(entry);
+            if (TranspositionTable.depth(entry) >= depth) {
+                int s = fromTT(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && s >= beta)
+                        || (bound == TranspositionTable.UPPER && s <= alpha)) {
+                    return s;
+                }
+            }
+        }
+
+        MoveList moves = moveLists[ply];
+        game.legalMoves(moves);
+        if (moves.isEmpty()) {
+            return MoveGenerator.inCheck(board) ? -MATE + ply : 0; // mate ou afogamento
+        }
+        orderMoves(moves, ttMove, ply);
+        expanded++;
+
+        int best = -INFINITY;
+        int bestMove = Moves.NONE;
+        for (int i = 0; i < moves.size(); i++) {
+            int move = moves.pickBest(i);
+            board.makeMove(move);
+            int score = -alphaBeta(depth - 1, ply + 1, -beta, -alpha);
+            board.unmakeMove();
+            if (stopped && completedDepth > 0) return 0;
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (score > alpha) {
+                    alpha = score;
+                    if (alpha >= beta) {
+                        cutoffs++;
+                        if (isQuiet(move)) rememberCutoff(move, depth, ply);
+                        break;
+                    }
+                }
+            }
+        }
+
+        int bound = best >= beta ? TranspositionTable.LOWER
+                : best > alphaOrig ? TranspositionTable.EXACT : TranspositionTable.UPPER;
+        tt.store(key, bestMove, toTT(best, ply), depth, bound);
+        return best;
+    }
+
+    private void orderMoves(MoveList moves, int ttMove, int ply) {
+        int side = board.whiteToMove() ? 0 : 1;
+        for (int i = 0; i < moves.size(); i++) {
+            int m = moves.get(i);
+            int score;
+            if (m == ttMove) {
+                score = ORDER_TT;
+            } else if (Moves.isCapture(m)) {
+                int victim = Moves.isEnPassant(m) ? 0 : board.get(Moves.to(m)).getType();
+                int attacker = board.get(Moves.from(m)).getType();
+                score = ORDER_CAPTURE + ORDER_VALUE[victim] * 32 - ORDER_VALUE[attacker];
+            } else if (Moves.isPromotion(m)) {
+                score = ORDER_CAPTURE - 1; // promoção quieta vem logo após as capturas
+            } else if (m == killers[ply][0]) {
+                score = ORDER_KILLER_1;
+            } else if (m == killers[ply][1]) {
+                score = ORDER_KILLER_2;
+            } else {
+                score = history[historyIndex(side, m)];
+            }
+            moves.setScore(i, score);
+        }
+    }
+
+    private void rememberCutoff(int move, int depth, int ply) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+        int i = historyIndex(board.whiteToMove() ? 0 : 1, move);
+        history[i] = Math.min(HISTORY_MAX, history[i] + depth * depth);
+    }
+
+    private static int historyIndex(int side, int move) {
+        return (side << 12) | (move & 0xFFF); // cor, origem, destino
+    }
+
+    private static boolean isQuiet(int move) {
+        return !Moves.isCapture(move) && !Moves.isPromotion(move);
+    }
+
+    private int evaluate() {
+        int e = AIPlayer.evaluateBoard(board);
+        return board.whiteToMove() ? e : -e;
+    }
+
+    // Valores de mate guardados relativos ao nó, não à raiz
+    private static int toTT(int score, int ply) {
+        return score >= MATE_BOUND ? score + ply : score <= -MATE_BOUND ? score - ply : score;
+    }
+
+    private static int fromTT(int score, int ply) {
+        return score >= MATE_BOUND ? score - ply : score <= -MATE_BOUND ? score + ply : score;
+    }
+}
@@ -0,0 +1,81 @@
+package controller;
+
+import model.board.Moves;
+import model.board.Position;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
+
+/**
+ * Busca da IA em andamento (ver AIPlayer.findBestMoveAsync). Além de ser um
+ * Future do lance, guarda a geração da partida em que foi pedida: se a
+ * partida foi reiniciada nesse meio-tempo, isFor(game) é false e o
+ * resultado não deve ser aplicado.
+ */
+public final class SearchHandle implements Future<Position[]> {
+    private final CompletableFuture<Integer> future;
+    private final CancellationToken token;
+    private final int generation;
+
+    SearchHandle(CompletableFuture<Integer> future, CancellationToken token, int generation) {
+        this.future = future;
+        this.token = token;
+        this.generation = generation;
+    }
+
+    /** Geração da partida (Game.generation()) quando a busca foi pedida. */
+    public int generation() { return generation; }
+
+    /** A busca pertence à partida atual de game (não foi reiniciada) e não foi cancelada? */
+    public boolean isFor(Game game) {
+        return !isCancelled() && game.generation() == generation;
+    }
+
+    /**
+     * Chama action (na thread da busca) quando ela termina, com o lance ou
+     * com o erro; em cancelamento, o erro é uma CancellationException.
+     */
+    public void whenDone(BiConsumer<? super Position[], ? super Throwable> action) {
+        future.whenComplete((move, error) -> action.accept(move == null ? null : AIPlayer.positions(move), error));
+    }
+
+    /**
+     * O lance achado, codificado (ver Moves) e com a peça de promoção;
+     * Moves.NONE se a busca ainda não terminou, foi cancelada ou não há lance.
+     */
+    public int move() {
+        return future.isDone() && !future.isCompletedExceptionally() ? future.join() : Moves.NONE;
+    }
+
+    /** Pede à busca que pare: ela percebe em no máximo alguns milhares de nós. */
+    @Override
+    public boolean cancel(boolean mayInterruptIfRunning) {
+        token.cancel();
+        return future.cancel(mayInterruptIfRunning);
+    }
+
+    /**
+     * Pede à busca que termine já, mas, ao contrário de cancel, o resultado
+     * vale: o Future completa com o melhor lance achado até aqui (o "stop" da UCI).
+     */
+    public void stop() {
+        token.cancel();
+    }
+
+    @Override public boolean isCancelled() { return future.isCancelled(); }
+    @Override public boolean isDone() { return future.isDone(); }
+
+    @Override
+    public Position[] get() throws InterruptedException, ExecutionException {
+        return AIPlayer.positions(future.get());
+    }
+
+    @Override
+    public Position[] get(long timeout, TimeUnit unit) throws InterruptedException, ExecutionException, TimeoutException {
+        return AIPlayer.positions(future.get(timeout, unit));
+    }
+}
@@ -0,0 +1,94 @@
+package controller;
+
+/**
+ * Retrato imutável de uma busca da IA, em andamento ou terminada. A busca
+ * publica um novo a cada iteração e periodicamente durante ela, então quem
+ * exibe (a interface, por exemplo) só precisa ler AIPlayer.searchStats().
+ */
+public final class SearchStats {
+    public static final SearchStats EMPTY = new SearchStats(0, 0, 0, 0, 0, 0, 0, new int[0], false);
+
+    // Valores acima disto (em módulo) são mate; inclui os mates longos das tabelas de finais
+    private static final int MATE_THRESHOLD = Search.MATE - 1000;
+
+    private final long nodes;
+    private final long elapsedMillis;
+    private final int depth;
+    private final double branchingFactor;
+    private final double cutoffRate;
+    private final double ttHitRate;
+    private final int score;
+    private final int[] pv;
+    private final boolean running;
+
+    SearchStats(long nodes, long elapsedMillis, int depth, double branchingFactor,
+                double cutoffRate, double ttHitRate, int score, int[] pv, boolean running) {
+        this.nodes = nodes;
+        this.elapsedMillis = elapsedMillis;
+        this.depth = depth;
+        this.branchingFactor = branchingFactor;
+        this.cutoffRate = cutoffRate;
+        this.ttHitRate = ttHitRate;
+        this.score = score;
+        this.pv = pv;
+        this.running = running;
+    }
+
+    /** Nós visitados (somando as threads auxiliares, se houver). */
+    public long nodes() { return nodes; }
+
+    public long elapsedMillis() { return elapsedMillis; }
+
+    public long nodesPerSecond() {
+        return elapsedMillis == 0 ? 0 : nodes * 1000 / elapsedMillis;
+    }
+
+    /** Profundidade da última iteração completa. */
+    public int depth() { return depth; }
+
+    /**
+     * Fator de ramificação efetivo: nós^(1/profundidade). A razão entre duas
+     * iterações seguidas seria mais direta, mas oscila demais quando uma
+     * iteração sai quase toda da TT.
+     */
+    public double branchingFactor() { return branchingFactor; }
+
+    /** Fração dos nós expandidos que terminaram em corte beta. */
+    public double cutoffRate() { return cutoffRate; }
+
+    /** Fração das consultas à tabela de transposição que acharam a posição. */
+    public double ttHitRate() { return ttHitRate; }
+
+    /** Valor da última iteração completa, em centipeões, do ponto de vista de quem joga. */
+    public int score() { return score; }
+
+    /**
+     * Lances até o mate segundo score (positivo: quem joga dá mate; negativo:
+     * leva), ou 0 se o valor não é de mate.
+     */
+    public int mateIn() { return mateIn(score); }
+
+    static int mateIn(int score) {
+        if (score >= MATE_THRESHOLD) return (Search.MATE - score + 1) / 2;
+        if (score <= -MATE_THRESHOLD) return -(Search.MATE + score + 1) / 2;
+        return 0;
+    }
+
+    /** Variante principal da última iteração completa (lances em int, ver Moves). */
+    public int[] pv() { return pv.clone(); }
+
+    /** A busca ainda está rodando? */
+    public boolean isRunning() { return running; }
+
+    // Mesma busca, com os nós das auxiliares do Lazy SMP somados
+    SearchStats plusNodes(long extra) {
+        return new SearchStats(nodes + extra, elapsedMillis, depth, branchingFactor, cutoffRate, ttHitRate,
+                score, pv, running);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("depth %d, %d nós, %d nós/s, EBF %.2f, cortes %.0f%%, TT %.0f%%, %d ms",
+                depth, nodes, nodesPerSecond(), branchingFactor, cutoffRate * 100, ttHitRate * 100, elapsedMillis);
+    }
+}
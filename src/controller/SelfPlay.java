@@ -0,0 +1,256 @@
+package controller;
+
+import model.board.Board;
+import model.board.MoveList;
+import model.board.Moves;
+import model.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Torneio IA contra IA sem interface: mede força (Elo com intervalo de 95%)
+ * e velocidade (partidas/s, tempo médio por lance) de uma configuração
+ * contra outra. É o teste de regressão de "mais rápido, mas não mais fraco".
+ *
+ * Cada partida roda numa virtual thread, então milhares podem estar abertas
+ * ao mesmo tempo sem custo; o que é limitado é a CPU: um lance só é pensado
+ * depois de pegar uma das N licenças (fila justa) e um AIPlayer livre do
+ * motor da vez. Os AIPlayers (e suas TTs) são reaproveitados entre
+ * partidas, então a memória não cresce com o número de partidas.
+ *
+ * As aberturas saem de uma lista de lances em coordenadas; cada uma é jogada
+ * duas vezes, com as cores trocadas. Empate por afogamento, repetição, 50
+ * lances, material insuficiente ou limite de lances; com tabelas de finais
+ * em resources/tb, a partida é adjudicada assim que entra numa delas.
+ *
+ * Uso: java controller.SelfPlay [--games N] [--threads N] [--movetime ms]
+ *      [--depth N] [--openings arquivo] MOTOR_A MOTOR_B
+ * onde MOTOR é EASY, MEDIUM ou HARD.
+ */
+public final class SelfPlay {
+    private static final int MAX_PLIES = 400;
+
+    private static final String[] DEFAULT_OPENINGS = {
+        "e2e4 e7e5 g1f3 b8c6 f1b5",
+        "e2e4 e7e5 g1f3 b8c6 f1c4",
+        "e2e4 c7c5 g1f3 d7d6",
+        "e2e4 c7c5 b1c3 b8c6",
+        "e2e4 e7e6 d2d4 d7d5",
+        "e2e4 c7c6 d2d4 d7d5",
+        "d2d4 d7d5 c2c4 e7e6",
+        "d2d4 d7d5 c2c4 c7c6",
+        "d2d4 g8f6 c2c4 e7e6",
+        "d2d4 g8f6 c2c4 g7g6",
+        "c2c4 e7e5 b1c3 g8f6",
+        "g1f3 d7d5 g2g3 g8f6",
+    };
+
+    /** Um lado do torneio: nível, tempo e profundidade, com seus AIPlayers livres. */
+    private static final class Engine {
+        final String name;
+        final BlockingQueue<AIPlayer> idle;
+        final LongAdder moves = new LongAdder();
+        final LongAdder thinkNanos = new LongAdder();
+
+        Engine(AIDifficulty difficulty, int players, long moveTime, int depth) {
+            this.name = difficulty.name();
+            this.idle = new ArrayBlockingQueue<>(players);
+            for (int i = 0; i < players; i++) {
+                AIPlayer p = new AIPlayer(difficulty, 4);
+                p.setMoveTime(moveTime);
+                p.setMaxDepth(depth);
+                idle.add(p);
+            }
+        }
+
+        double averageMoveMillis() {
+            long n = moves.sum();
+            return n == 0 ? 0 : thinkNanos.sum() / 1e6 / n;
+        }
+    }
+
+    private final Engine a, b;
+    private final Semaphore cpu;
+    private final List<String> openings;
+    private final Tablebases tablebases;
+
+    // Resultados do ponto de vista de A
+    private final AtomicInteger wins = new AtomicInteger(), draws = new AtomicInteger(), losses = new AtomicInteger();
+    private final LongAdder plies = new LongAdder();
+
+    public SelfPlay(AIDifficulty a, AIDifficulty b, int threads, long moveTime, int depth,
+                    List<String> openings, Tablebases tablebases) {
+        this.a = new Engine(a, threads, moveTime, depth);
+        this.b = new Engine(b, threads, moveTime, depth);
+        this.cpu = new Semaphore(threads, true);
+        this.openings = openings;
+        this.tablebases = tablebases;
+    }
+
+    /** Joga games partidas (A de brancas nas pares) e espera todas terminarem. */
+    public void run(int games) throws InterruptedException {
+        AtomicInteger done = new AtomicInteger();
+        long start = System.nanoTime();
+        int step = Math.max(1, games / 10);
+        try (ExecutorService exec = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < games; i++) {
+                String opening = openings.get((i / 2) % openings.size());
+                boolean aWhite = i % 2 == 0;
+                exec.submit(() -> {
+                    record(play(opening, aWhite), aWhite);
+                    int n = done.incrementAndGet();
+                    if (n % step == 0 || n == games) {
+                        double secs = (System.nanoTime() - start) / 1e9;
+                        System.out.printf("%d/%d partidas  +%d =%d -%d  %.2f partidas/s%n",
+                                n, games, wins.get(), draws.get(), losses.get(), n / secs);
+                    }
+                    return null;
+                });
+            }
+        } // close() espera todas
+        report((System.nanoTime() - start) / 1e9);
+    }
+
+    // Uma partida; devolve 1 se as brancas venceram, -1 se as pretas, 0 no empate
+    private int play(String opening, boolean aWhite) throws InterruptedException {
+        Game game = new Game();
+        MoveList legal = new MoveList();
+        for (String m : opening.trim().split("\\s+")) {
+            int move = Uci.parseMove(game, m, legal);
+            if (move == Moves.NONE) break;
+            game.makeMove(move);
+        }
+        for (int ply = 0; ply < MAX_PLIES; ply++) {
+            int result = adjudicate(game, legal);
+            if (result != Integer.MIN_VALUE) {
+                plies.add(ply);
+                return result;
+            }
+            Engine side = game.whiteToMove() == aWhite ? a : b;
+            int move = think(side, game);
+            if (move == Moves.NONE) break;
+            game.move(move); // com a promoção que o motor escolheu
+        }
+        plies.add(MAX_PLIES);
+        return 0;
+    }
+
+    private int think(Engine side, Game game) throws InterruptedException {
+        cpu.acquire();
+        AIPlayer player = side.idle.take(); // nunca espera: há um por licença
+        try {
+            long t0 = System.nanoTime();
+            int move = player.findBestMoveEncoded(game);
+            side.thinkNanos.add(System.nanoTime() - t0);
+            side.moves.increment();
+            return move;
+        } finally {
+            side.idle.add(player);
+            cpu.release();
+        }
+    }
+
+    // Resultado se a partida acabou (1 / 0 / -1, brancas), senão Integer.MIN_VALUE
+    private int adjudicate(Game game, MoveList legal) {
+        int result = rulesResult(game, legal);
+        if (result != Integer.MIN_VALUE) return result;
+        Board board = game.board();
+        if (tablebases != null) {
+            int v = tablebases.probe(board);
+            if (v != Tablebases.UNKNOWN) {
+                if (v == 0) return 0;
+                return (v > 0) == board.whiteToMove() ? 1 : -1;
+            }
+        }
+        return Integer.MIN_VALUE;
+    }
+
+    /**
+     * Resultado pelas regras (1 / 0 / -1, brancas): mate, afogamento,
+     * repetição tripla, 50 lances ou material insuficiente; senão
+     * Integer.MIN_VALUE. legal é só buffer.
+     */
+    static int rulesResult(Game game, MoveList legal) {
+        Board board = game.board();
+        game.legalMoves(legal);
+        if (legal.isEmpty()) {
+            if (!game.inCheck(board.whiteToMove())) return 0; // afogamento
+            return board.whiteToMove() ? -1 : 1;
+        }
+        if (game.isThreefoldRepetition() || board.halfmoveClock() >= 100 || insufficientMaterial(board)) return 0;
+        return Integer.MIN_VALUE;
+    }
+
+    // Só reis, ou reis e uma peça menor
+    private static boolean insufficientMaterial(Board b) {
+        int count = Long.bitCount(b.occupied());
+        if (count == 2) return true;
+        if (count != 3) return false;
+        long minors = b.pieces(true, Piece.BISHOP) | b.pieces(true, Piece.KNIGHT)
+                | b.pieces(false, Piece.BISHOP) | b.pieces(false, Piece.KNIGHT);
+        return minors != 0;
+    }
+
+    private void record(int whiteResult, boolean aWhite) {
+        int r = aWhite ? whiteResult : -whiteResult;
+        (r > 0 ? wins : r < 0 ? losses : draws).incrementAndGet();
+    }
+
+    private void report(double seconds) {
+        int w = wins.get(), d = draws.get(), l = losses.get(), n = w + d + l;
+        if (n == 0) return;
+        double score = (w + d / 2.0) / n;
+        // Desvio padrão da pontuação por partida -> intervalo de 95% da média
+        double var = (w * Math.pow(1 - score, 2) + d * Math.pow(0.5 - score, 2) + l * Math.pow(score, 2)) / n;
+        double margin = 1.96 * Math.sqrt(var / n);
+        System.out.printf("%n%s x %s: %d partidas, +%d =%d -%d, %.1f%%%n", a.name, b.name, n, w, d, l, score * 100);
+        System.out.printf("Elo %s (95%%: %s a %s)%n",
+                elo(score), elo(Math.max(0, score - margin)), elo(Math.min(1, score + margin)));
+        System.out.printf("%.2f partidas/s, %.1f plies por partida%n", n / seconds, plies.sum() / (double) n);
+        System.out.printf("tempo médio por lance: %s %.1f ms, %s %.1f ms%n",
+                a.name, a.averageMoveMillis(), b.name, b.averageMoveMillis());
+    }
+
+    private static String elo(double score) {
+        if (score <= 0) return "-inf";
+        if (score >= 1) return "+inf";
+        return String.format("%+.0f", -400 * Math.log10(1 / score - 1));
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        int games = 100, threads = Runtime.getRuntime().availableProcessors(), depth = Search.MAX_PLY;
+        long moveTime = 50;
+        List<String> openings = List.of(DEFAULT_OPENINGS);
+        List<AIDifficulty> engines = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--games" -> games = Integer.parseInt(args[++i]);
+                case "--threads" -> threads = Math.max(1, Integer.parseInt(args[++i]));
+                case "--movetime" -> moveTime = Long.parseLong(args[++i]);
+                case "--depth" -> depth = Integer.parseInt(args[++i]);
+                case "--openings" -> openings = Files.readAllLines(Path.of(args[++i]), StandardCharsets.US_ASCII)
+                        .stream().filter(s -> !s.isBlank()).toList();
+                default -> engines.add(AIDifficulty.valueOf(args[i].toUpperCase()));
+            }
+        }
+        if (engines.size() != 2 || openings.isEmpty()) {
+            System.err.println("Uso: java controller.SelfPlay [--games N] [--threads N] [--movetime ms]"
+                    + " [--depth N] [--openings arquivo] MOTOR_A MOTOR_B");
+            System.exit(1);
+        }
+        new SelfPlay(engines.get(0), engines.get(1), threads, moveTime, depth, openings,
+                Tablebases.openIfExists(Path.of("resources", "tb"))).run(games);
+    }
+}
@@ -0,0 +1,248 @@
+package controller;
+
+import controller.Tablebases.Signature;
+import model.board.Attacks;
+import model.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Gera as tabelas de finais por análise retrógrada, sem depender de nada
+ * externo. O lado forte joga de brancas; o fraco só tem o rei.
+ *
+ * 1. Para cada posição legal com o fraco a jogar, conta seus lances legais;
+ *    sem lances e em xeque, é mate (nível 0).
+ * 2. Nível a nível (em plies): das posições perdidas no nível n, desfaz
+ *    lances do forte; as de origem vencem em n + 1. Das posições vencidas no
+ *    nível n, desfaz lances do rei fraco e decrementa o contador da origem;
+ *    se zerar, todos os lances dela levam a derrota: perde em n + 1.
+ * 3. O que sobrar é empate (inclusive capturas: KK, KBK e KNK não têm mate).
+ *
+ * Como o fraco só tem o rei, o forte nunca captura; os lances desfeitos são
+ * os próprios movimentos das peças ao contrário (o peão anda para trás). As
+ * promoções do KPK saem para as tabelas KQK/KRK, que precisam vir antes.
+ *
+ * Uso: java controller.TablebaseGenerator [diretório]   (padrão: resources/tb)
+ */
+public final class TablebaseGenerator {
+    private final Signature sig;
+    private final int n;          // peças além dos reis
+    private final int[] types;
+    private final byte[] value;   // 0 = empate/indefinido, 1 + plies até o mate
+    private final byte[] count;   // lances do rei fraco ainda não refutados
+    private final byte[] promotion; // KPK: plies até o mate via promoção (0 = nenhuma)
+    private final int[] s = new int[4]; // casas da posição em análise: rei forte, rei fraco, peças
+
+    private TablebaseGenerator(Signature sig, Map<Signature, byte[]> built) {
+        this.sig = sig;
+        this.types = sig.pieces;
+        this.n = types.length;
+        this.value = new byte[sig.size()];
+        this.count = new byte[sig.size()];
+        this.promotion = sig == Signature.KPK ? promotionWins(built) : null;
+    }
+
+    /** Gera a tabela de sig; built precisa conter as tabelas das promoções (KQK e KRK para o KPK). */
+    public static byte[] generate(Signature sig, Map<Signature, byte[]> built) {
+        TablebaseGenerator g = new TablebaseGenerator(sig, built);
+        g.run();
+        return g.value;
+    }
+
+    private void run() {
+        int maxInjected = 0;
+        for (int idx = 0; idx < value.length; idx++) {
+            int stm = decode(idx);
+            if (stm == 1 && legal(1)) {
+                int moves = weakMoves();
+                count[idx] = (byte) moves;
+                if (moves == 0 && weakInCheck()) value[idx] = 1; // mate
+            }
+            if (promotion != null) maxInjected = Math.max(maxInjected, promotion[idx] & 0xFF);
+        }
+
+        for (int level = 0; level < 254; level++) {
+            byte code = (byte) (level + 1);
+            if (promotion != null && (level & 1) == 1) {
+                for (int idx = 0; idx < value.length; idx++) {
+                    if ((promotion[idx] & 0xFF) == level && value[idx] == 0) value[idx] = code;
+                }
+            }
+            boolean any = false;
+            for (int idx = 0; idx < value.length; idx++) {
+                if (value[idx] != code) continue;
+                any = true;
+                if (decode(idx) == 1) retractStrong(level);
+                else retractWeak(level);
+            }
+            if (!any && level > maxInjected) break;
+        }
+    }
+
+    // Posição perdida (fraco a jogar) no nível level: origens pelo forte vencem em level + 1
+    private void retractStrong(int level) {
+        long occ = occupancy();
+        int king = s[0];
+        for (long bb = Attacks.king(king) & ~occ; bb != 0; bb &= bb - 1) {
+            s[0] = Long.numberOfTrailingZeros(bb);
+            markWin(level);
+        }
+        s[0] = king;
+        for (int i = 0; i < n; i++) {
+            int p = s[i + 2];
+            long from;
+            if (types[i] == Piece.PAWN) {
+                // Peão branco anda para linhas menores: desfazer é voltar 8 (ou 16 do avanço duplo)
+                from = 0;
+                if (p + 8 < 56 && (occ & (1L << (p + 8))) == 0) {
+                    from = 1L << (p + 8);
+                    if ((p >>> 3) == 4 && (occ & (1L << (p + 16))) == 0) from |= 1L << (p + 16);
+                }
+            } else {
+                from = attacks(types[i], p, occ) & ~occ;
+            }
+            for (; from != 0; from &= from - 1) {
+                s[i + 2] = Long.numberOfTrailingZeros(from);
+                markWin(level);
+            }
+            s[i + 2] = p;
+        }
+    }
+
+    private void markWin(int level) {
+        int q = index(0);
+        if (value[q] == 0 && legal(0)) value[q] = (byte) (level + 2);
+    }
+
+    // Posição vencida (forte a jogar) no nível level: origens pelo rei fraco perdem um lance de fuga
+    private void retractWeak(int level) {
+        long occ = occupancy();
+        int king = s[1];
+        for (long bb = Attacks.king(king) & ~occ & ~Attacks.king(s[0]); bb != 0; bb &= bb - 1) {
+            s[1] = Long.numberOfTrailingZeros(bb);
+            int q = index(1);
+            if (value[q] == 0 && legal(1) && --count[q] == 0) value[q] = (byte) (level + 2);
+        }
+        s[1] = king;
+    }
+
+    // KPK: para cada posição com o forte a jogar, o mate mais curto promovendo a dama ou torre
+    private byte[] promotionWins(Map<Signature, byte[]> built) {
+        byte[] queen = built.get(Signature.KQK), rook = built.get(Signature.KRK);
+        if (queen == null || rook == null) throw new IllegalStateException("KPK precisa de KQK e KRK");
+        byte[] out = new byte[sig.size()];
+        for (int idx = 0; idx < out.length; idx++) {
+            if (decode(idx) != 0 || s[2] >= 16 || !legal(0)) continue;
+            int to = s[2] - 8;
+            if (to == s[0] || to == s[1]) continue;
+            // Depois da promoção, o fraco a jogar numa tabela de 3 peças
+            int after = ((1 << 6 | s[0]) << 6 | s[1]) << 6 | to;
+            int best = 0;
+            for (byte[] t : new byte[][]{queen, rook}) {
+                int v = t[after] & 0xFF;
+                if (v != 0 && (best == 0 || v < best)) best = v; // perde em v - 1 plies: vence em v
+            }
+            out[idx] = (byte) best;
+        }
+        return out;
+    }
+
+    private int decode(int idx) {
+        for (int i = n + 1; i >= 0; i--) {
+            s[i] = idx & 63;
+            idx >>>= 6;
+        }
+        return idx;
+    }
+
+    private int index(int stm) {
+        int idx = stm;
+        for (int i = 0; i < n + 2; i++) idx = idx << 6 | s[i];
+        return idx;
+    }
+
+    private long occupancy() {
+        long occ = 0;
+        for (int i = 0; i < n + 2; i++) occ |= 1L << s[i];
+        return occ;
+    }
+
+    private boolean legal(int stm) {
+        long occ = 0;
+        for (int i = 0; i < n + 2; i++) {
+            long bit = 1L << s[i];
+            if ((occ & bit) != 0) return false;
+            occ |= bit;
+        }
+        if ((Attacks.king(s[0]) & (1L << s[1])) != 0) return false;
+        for (int i = 0; i < n; i++) {
+            if (types[i] == Piece.PAWN && (s[i + 2] < 8 || s[i + 2] >= 56)) return false;
+        }
+        // Com o forte a jogar, o rei fraco não pode estar em xeque
+        return stm == 1 || (strongAttacks(occ, -1) & (1L << s[1])) == 0;
+    }
+
+    private boolean weakInCheck() {
+        return (strongAttacks(occupancy(), -1) & (1L << s[1])) != 0;
+    }
+
+    // Lances legais do rei fraco, inclusive capturas de peças desprotegidas
+    private int weakMoves() {
+        long occ = occupancy();
+        int king = s[1], moves = 0;
+        for (long bb = Attacks.king(king) & ~Attacks.king(s[0]); bb != 0; bb &= bb - 1) {
+            int to = Long.numberOfTrailingZeros(bb);
+            int captured = -1;
+            for (int i = 2; i < n + 2; i++) if (s[i] == to) captured = i;
+            long after = (occ & ~(1L << king)) | (1L << to);
+            if ((strongAttacks(after, captured) & (1L << to)) == 0) moves++;
+        }
+        return moves;
+    }
+
+    // Casas atacadas pelo forte com a ocupação occ, sem a peça de índice skip (capturada)
+    private long strongAttacks(long occ, int skip) {
+        long a = Attacks.king(s[0]);
+        for (int i = 0; i < n; i++) {
+            if (i + 2 != skip) a |= attacks(types[i], s[i + 2], occ);
+        }
+        return a;
+    }
+
+    private static long attacks(int type, int sq, long occ) {
+        return switch (type) {
+            case Piece.PAWN -> Attacks.pawn(true, sq);
+            case Piece.KNIGHT -> Attacks.knight(sq);
+            case Piece.BISHOP -> Attacks.bishop(sq, occ);
+            case Piece.ROOK -> Attacks.rook(sq, occ);
+            default -> Attacks.queen(sq, occ);
+        };
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path dir = Path.of(args.length > 0 ? args[0] : "resources/tb");
+        Files.createDirectories(dir);
+        Map<Signature, byte[]> built = new EnumMap<>(Signature.class);
+        for (Signature sig : Signature.values()) { // KQK e KRK antes do KPK
+            long start = System.nanoTime();
+            byte[] table = generate(sig, built);
+            built.put(sig, table);
+            try (FileChannel ch = FileChannel.open(dir.resolve(sig.fileName()), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buf = ByteBuffer.wrap(table);
+                while (buf.hasRemaining()) ch.write(buf);
+            }
+            int longest = 0;
+            for (byte v : table) longest = Math.max(longest, v & 0xFF);
+            System.out.printf("%s: %d posições, mate mais longo em %d plies, %d ms%n",
+                    sig, table.length, Math.max(0, longest - 1), (System.nanoTime() - start) / 1_000_000);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package controller;
+
+import model.board.Board;
+import model.board.MoveGenerator;
+import model.board.MoveList;
+import model.board.Moves;
+import model.pieces.Piece;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Tabelas de finais geradas localmente (ver TablebaseGenerator) e lidas
+ * direto dos arquivos mapeados em memória. Cada tabela tem um byte por
+ * posição, endereçado sem busca nenhuma:
+ *
+ *   índice = lado a jogar (0 = forte, 1 = fraco) | rei forte | rei fraco | peças do forte
+ *
+ * com 6 bits por casa, sempre com o lado forte "de brancas" (se for o preto,
+ * as casas são espelhadas). O byte vale 0 para empate e, senão, 1 + a
+ * distância até o mate em plies (vitória para o forte, derrota para o fraco).
+ */
+public final class Tablebases {
+    /** Resultado de probe para posições que nenhuma tabela cobre. */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+    public static final int MAX_PIECES = 4;
+
+    /** Materiais cobertos: o lado forte tem rei + estas peças, o fraco só o rei. */
+    public enum Signature {
+        KQK(Piece.QUEEN), KRK(Piece.ROOK), KPK(Piece.PAWN), KBNK(Piece.BISHOP, Piece.KNIGHT);
+
+        final int[] pieces;
+
+        Signature(int... pieces) {
+            this.pieces = pieces;
+        }
+
+        /** Número de posições (bytes) da tabela. */
+        public int size() {
+            return 2 << (6 * (2 + pieces.length));
+        }
+
+        public String fileName() {
+            return name() + ".tb";
+        }
+    }
+
+    private final MappedByteBuffer[] tables = new MappedByteBuffer[Signature.values().length];
+
+    private Tablebases() { }
+
+    /** Mapeia as tabelas existentes em dir (as que faltarem ficam sem cobertura). */
+    public static Tablebases open(Path dir) throws IOException {
+        Tablebases tb = new Tablebases();
+        for (Signature sig : Signature.values()) {
+            Path file = dir.resolve(sig.fileName());
+            if (!Files.isRegularFile(file)) continue;
+            try (FileChannel ch = FileChannel.open(file, StandardOpenOption.READ)) {
+                if (ch.size() != sig.size()) throw new IOException("Tamanho inesperado: " + file);
+                tb.tables[sig.ordinal()] = ch.map(FileChannel.MapMode.READ_ONLY, 0, ch.size());
+            }
+        }
+        return tb;
+    }
+
+    /** Abre as tabelas de dir, ou devolve null se o diretório não existir ou não puder ser lido. */
+    public static Tablebases openIfExists(Path dir) {
+        if (!Files.isDirectory(dir)) return null;
+        try {
+            return open(dir);
+        } catch (IOException e) {
+            System.err.println("Tabelas de finais ignoradas: " + e.getMessage());
+            return null;
+        }
+    }
+
+    public boolean has(Signature sig) {
+        return tables[sig.ordinal()] != null;
+    }
+
+    /**
+     * Valor exato da posição para o lado a jogar, na escala de mate da busca:
+     * 0 = empate, Search.MATE - n = vence com mate em n plies, -(Search.MATE - n)
+     * = leva mate em n plies; UNKNOWN se não houver tabela. Reis nus, rei e
+     * bispo ou rei e cavalo contra rei são empate sem tabela. Posições com
+     * direito de roque ficam de fora (as tabelas não têm roque). O(1): só
+     * contagens de bits e um acesso ao arquivo mapeado.
+     */
+    public int probe(Board b) {
+        long occ = b.occupied();
+        int count = Long.bitCount(occ);
+        if (count > MAX_PIECES || b.castlingRights() != 0) return UNKNOWN;
+        boolean strongWhite = Long.bitCount(b.occupancy(true)) > 1;
+        if (Long.bitCount(b.occupancy(!strongWhite)) > 1) return UNKNOWN; // material dos dois lados
+        if (count == 2) return 0;
+
+        Signature sig;
+        int p0, p1 = -1;
+        if (count == 3) {
+            p0 = Long.numberOfTrailingZeros(b.occupancy(strongWhite) & ~b.pieces(strongWhite, Piece.KING));
+            switch (b.get(p0).getType()) {
+                case Piece.QUEEN -> sig = Signature.KQK;
+                case Piece.ROOK -> sig = Signature.KRK;
+                case Piece.PAWN -> sig = Signature.KPK;
+                default -> { return 0; } // KBK, KNK: não há mate possível
+            }
+        } else {
+            long bishops = b.pieces(strongWhite, Piece.BISHOP), knights = b.pieces(strongWhite, Piece.KNIGHT);
+            if (Long.bitCount(bishops) != 1 || Long.bitCount(knights) != 1) return UNKNOWN;
+            sig = Signature.KBNK;
+            p0 = Long.numberOfTrailingZeros(bishops);
+            p1 = Long.numberOfTrailingZeros(knights);
+        }
+        MappedByteBuffer table = tables[sig.ordinal()];
+        if (table == null) return UNKNOWN;
+
+        int flip = strongWhite ? 0 : 56; // espelha as fileiras: o forte sempre joga "de brancas"
+        int stm = b.whiteToMove() == strongWhite ? 0 : 1;
+        int index = stm << 6 | (b.kingSquare(strongWhite) ^ flip);
+        index = index << 6 | (b.kingSquare(!strongWhite) ^ flip);
+        index = index << 6 | (p0 ^ flip);
+        if (p1 >= 0) index = index << 6 | (p1 ^ flip);
+
+        int v = table.get(index) & 0xFF;
+        if (v == 0) return 0;
+        int plies = v - 1;
+        return stm == 0 ? Search.MATE - plies : -(Search.MATE - plies);
+    }
+
+    /**
+     * Melhor lance pela tabela: o mate mais curto se vence, um lance que
+     * mantém o empate, ou a defesa mais longa se perde. Moves.NONE se a
+     * posição (ou alguma posição seguinte) não estiver coberta.
+     */
+    public int bestMove(Board b) {
+        if (probe(b) == UNKNOWN) return Moves.NONE;
+        MoveList moves = new MoveList();
+        MoveGenerator.generateLegal(b, moves);
+        int best = Moves.NONE, bestScore = Integer.MIN_VALUE;
+        for (int i = 0; i < moves.size(); i++) {
+            int m = moves.get(i);
+            b.makeMove(m);
+            int v = probe(b);
+            b.unmakeMove();
+            if (v == UNKNOWN) return Moves.NONE;
+            if (-v > bestScore) {
+                bestScore = -v;
+                best = m;
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,105 @@
+package controller;
+
+import java.util.Arrays;
+
+/**
+ * Tabela de transposição de tamanho fixo num único long[] pré-alocado.
+ *
+ * Cada entrada ocupa dois longs: (chave XOR dados, dados). Na leitura a chave
+ * é reconstruída com um XOR, então uma entrada escrita pela metade por outra
+ * thread simplesmente não bate com a chave e é tratada como ausente; por isso
+ * a tabela pode ser compartilhada entre threads de busca sem travas.
+ *
+ * Os baldes têm duas entradas: a primeira prefere profundidade (só é trocada
+ * por uma busca mais funda ou se ficou velha, de uma busca anterior) e a
+ * segunda é sempre substituída.
+ *
+ * Dados (64 bits): lance 16 | valor 16 (com sinal) | profundidade 8 | tipo 2 | idade 6.
+ */
+public final class TranspositionTable {
+    public static final int EXACT = 1;  // valor exato
+    public static final int LOWER = 2;  // valor >= armazenado (corte beta)
+    public static final int UPPER = 3;  // valor <= armazenado (nenhum lance superou alfa)
+
+    private static final int LONGS_PER_BUCKET = 4;
+
+    private final long[] table;
+    private final int bucketMask;
+    private volatile int age;
+
+    /** Cria a tabela com até sizeMb megabytes (arredondado para potência de 2). */
+    public TranspositionTable(int sizeMb) {
+        long bytes = Math.max(1, sizeMb) * 1024L * 1024L;
+        long buckets = Long.highestOneBit(bytes / (LONGS_PER_BUCKET * 8));
+        buckets = Math.min(buckets, 1L << 28);
+        this.table = new long[(int) buckets * LONGS_PER_BUCKET];
+        this.bucketMask = (int) buckets - 1;
+    }
+
+    /** Apaga tudo (nova partida). */
+    public void clear() {
+        Arrays.fill(table, 0L);
+        age = 0;
+    }
+
+    /** Marca o início de uma nova busca: entradas antigas passam a ser substituíveis. */
+    public void newSearch() {
+        age = (age + 1) & 63;
+    }
+
+    /** Dados da entrada da chave, ou 0 se não houver. */
+    public long probe(long key) {
+        int i = index(key);
+        long data = table[i + 1];
+        if ((table[i] ^ data) == key && data != 0) return data;
+        data = table[i + 3];
+        if ((table[i + 2] ^ data) == key && data != 0) return data;
+        return 0;
+    }
+
+    public void store(long key, int move, int score, int depth, int bound) {
+        int i = index(key);
+        long data = (move & 0xFFFFL)
+                | (score & 0xFFFFL) << 16
+                | (long) (Math.max(0, Math.min(depth, 255))) << 32
+                | (long) bound << 40
+                | (long) age << 42;
+
+        long old = table[i + 1];
+        boolean sameKey = (table[i] ^ old) == key;
+        if (sameKey || old == 0 || age(old) != age || depth >= depth(old)) {
+            // Mantém o lance antigo se a nova entrada não tiver um
+            if (sameKey && move == 0) data |= old & 0xFFFFL;
+            if (!sameKey && old != 0) {
+                // A entrada substituída desce para o balde "sempre substitui"
+                table[i + 2] = table[i];
+                table[i + 3] = old;
+            }
+            table[i] = key ^ data;
+            table[i + 1] = data;
+        } else {
+            table[i + 2] = key ^ data;
+            table[i + 3] = data;
+        }
+    }
+
+    /** Permilagem de entradas preenchidas na busca atual (amostra dos primeiros baldes). */
+    public int hashfull() {
+        int sample = Math.min(1000, bucketMask + 1), used = 0;
+        for (int b = 0; b < sample; b++) {
+            long d = table[b * LONGS_PER_BUCKET + 1];
+            if (d != 0 && age(d) == age) used++;
+        }
+        return used * 1000 / sample;
+    }
+
+    private int index(long key) {
+        return ((int) (key ^ (key >>> 32)) & bucketMask) * LONGS_PER_BUCKET;
+    }
+
+    public static int move(long data) { return (int) (data & 0xFFFF); }
+    public static int score(long data) { return (short) (data >>> 16); }
+    public static int depth(long data) { return (int) (data >>> 32) & 0xFF; }
+    public static int bound(long data) { return (int) (data >>> 40) & 3; }
+    private static int age(long data) { return (int) (data >>> 42) & 63; }
+}
@@ -0,0 +1,341 @@
+package controller;
+
+import model.board.MoveList;
+import model.board.Moves;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Motor sem interface gráfica, falando UCI em stdin/stdout, para rodar em
+ * gerenciadores de torneio, testes automáticos ou servidores sem tela.
+ * Por baixo é o mesmo Game + AIPlayer (nível Difícil) da interface.
+ *
+ * Comandos: uci, isready, setoption (Hash, Threads, OwnBook), ucinewgame,
+ * position [startpos | fen ...] [moves ...], go [depth | movetime | wtime
+ * btime winc binc | infinite], stop, quit. A busca roda na thread do
+ * AIPlayer; esta thread continua lendo a entrada, então "stop" e "isready"
+ * são atendidos na hora. Enquanto busca, as estatísticas do AIPlayer são
+ * lidas a cada 100 ms: sai uma linha "info" quando há iteração nova (com
+ * valor e variante principal) e, se não houver, uma a cada segundo.
+ *
+ * Uso: java controller.Uci
+ */
+public final class Uci {
+    private static final String NAME = "ChessGame";
+    private static final long INFINITE_MS = 24L * 60 * 60 * 1000;
+    private static final long INFO_POLL_MS = 100;
+    private static final long INFO_IDLE_MS = 1000;
+
+    private final BufferedReader in;
+    private final OutputStream out;
+    private final ScheduledExecutorService infoTimer = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "uci-info");
+        t.setDaemon(true);
+        return t;
+    });
+
+    private int hashMb = AIPlayer.DEFAULT_HASH_MB;
+    private int threads = 1;
+    private boolean ownBook = true;
+    private AIPlayer ai;
+    private Game game = new Game();
+
+    // Busca em andamento (acessados pela thread de leitura e pela da busca)
+    private SearchHandle search;
+    private ScheduledFuture<?> infoTask;
+    private boolean infinite;    // "go infinite": bestmove só depois do stop
+    private boolean stopped;     // stop recebido para a busca atual
+    private String heldBestMove; // bestmove de uma busca infinita que acabou antes do stop
+    private int lastInfoDepth;
+    private long lastInfoAt;
+
+    public Uci(Reader in, OutputStream out) {
+        this.in = new BufferedReader(in, 1 << 16);
+        this.out = out;
+    }
+
+    public static void main(String[] args) throws IOException {
+        OutputStream stdout = new BufferedOutputStream(new FileOutputStream(FileDescriptor.out), 1 << 16);
+        new Uci(new InputStreamReader(System.in, StandardCharsets.US_ASCII), stdout).run();
+    }
+
+    /** Lê e executa comandos até "quit" ou o fim da entrada. */
+    public void run() throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            String[] t = line.trim().split("\\s+");
+            try {
+                if (!execute(t)) return;
+            } catch (NumberFormatException e) {
+                send("info string número inválido em: " + line.trim());
+            }
+        }
+        quit();
+    }
+
+    // Executa um comando; false = quit
+    private boolean execute(String[] t) {
+        switch (t[0]) {
+            case "uci" -> {
+                send("id name " + NAME);
+                send("id author ChessGame");
+                send("option name Hash type spin default " + AIPlayer.DEFAULT_HASH_MB + " min 1 max 4096");
+                send("option name Threads type spin default 1 min 1 max "
+                        + Runtime.getRuntime().availableProcessors());
+                send("option name OwnBook type check default true");
+                send("uciok");
+            }
+            case "isready" -> send("readyok");
+            case "setoption" -> setOption(t);
+            case "ucinewgame" -> {
+                stop();
+                if (ai != null) ai.newGame();
+                game = new Game();
+            }
+            case "position" -> {
+                stop();
+                position(t);
+            }
+            case "go" -> go(t);
+            case "stop" -> stop();
+            case "quit" -> {
+                quit();
+                return false;
+            }
+            default -> { } // linhas vazias e comandos desconhecidos são ignorados, como pede o protocolo
+        }
+        return true;
+    }
+
+    // setoption name <nome> value <valor>
+    private void setOption(String[] t) {
+        String name = null, value = null;
+        for (int i = 1; i < t.length - 1; i++) {
+            if (t[i].equals("name")) name = t[i + 1];
+            else if (t[i].equals("value")) value = t[i + 1];
+        }
+        if (name == null || value == null) return;
+        switch (name.toLowerCase()) {
+            case "hash" -> {
+                hashMb = Math.max(1, Integer.parseInt(value));
+                shutdownEngine(); // a TT tem tamanho fixo: recria o AIPlayer no próximo go
+            }
+            case "threads" -> {
+                threads = Math.max(1, Integer.parseInt(value));
+                if (ai != null) ai.setThreads(threads);
+            }
+            case "ownbook" -> {
+                ownBook = Boolean.parseBoolean(value);
+                shutdownEngine();
+            }
+            default -> { }
+        }
+    }
+
+    // position [startpos | fen <6 campos>] [moves <lances>]
+    private void position(String[] t) {
+        int i = 1;
+        Game g;
+        if (i < t.length && t[i].equals("fen")) {
+            StringBuilder fen = new StringBuilder();
+            for (i++; i < t.length && !t[i].equals("moves"); i++) fen.append(t[i]).append(' ');
+            try {
+                g = Game.fromFen(fen.toString());
+            } catch (IllegalArgumentException e) {
+                send("info string " + e.getMessage());
+                return;
+            }
+        } else {
+            g = new Game();
+            if (i < t.length && t[i].equals("startpos")) i++;
+        }
+        if (i < t.length && t[i].equals("moves")) {
+            MoveList legal = new MoveList();
+            for (i++; i < t.length; i++) {
+                int move = parseMove(g, t[i], legal);
+                if (move == Moves.NONE) {
+                    send("info string lance ilegal: " + t[i]);
+                    break;
+                }
+                g.makeMove(move);
+            }
+        }
+        game = g;
+    }
+
+    // Lance em notação de coordenadas ("e2e4", "e7e8q") entre os legais de g; Moves.NONE se não for legal
+    static int parseMove(Game g, String uci, MoveList legal) {
+        g.legalMoves(legal);
+        for (int j = 0; j < legal.size(); j++) {
+            if (Moves.toString(legal.get(j)).equals(uci)) return legal.get(j);
+        }
+        return Moves.NONE;
+    }
+
+    private void go(String[] t) {
+        stop();
+        AIPlayer player = engine();
+        long wtime = -1, btime = -1, winc = 0, binc = 0, movetime = -1;
+        int depth = Search.MAX_PLY;
+        boolean inf = false;
+        for (int i = 1; i < t.length; i++) {
+            boolean hasValue = i + 1 < t.length;
+            switch (t[i]) {
+                case "wtime" -> { if (hasValue) wtime = Long.parseLong(t[++i]); }
+                case "btime" -> { if (hasValue) btime = Long.parseLong(t[++i]); }
+                case "winc" -> { if (hasValue) winc = Long.parseLong(t[++i]); }
+                case "binc" -> { if (hasValue) binc = Long.parseLong(t[++i]); }
+                case "movetime" -> { if (hasValue) movetime = Long.parseLong(t[++i]); }
+                case "depth" -> { if (hasValue) depth = Integer.parseInt(t[++i]); }
+                case "infinite" -> inf = true;
+                default -> { }
+            }
+        }
+        boolean white = game.whiteToMove();
+        long left = white ? wtime : btime;
+        if (left >= 0 && movetime < 0 && !inf) {
+            ChessClock clock = new ChessClock(Math.max(wtime, btime), white ? winc : binc);
+            if (wtime >= 0) clock.setRemainingMillis(true, wtime);
+            if (btime >= 0) clock.setRemainingMillis(false, btime);
+            game.setClock(clock);
+        } else {
+            game.setClock(null);
+            // Só profundidade (ou infinite): sem prazo, até o stop
+            player.setMoveTime(movetime >= 0 ? movetime : INFINITE_MS);
+        }
+        player.setMaxDepth(depth);
+
+        Game searched = game;
+        synchronized (this) {
+            infinite = inf;
+            stopped = false;
+            heldBestMove = null;
+            lastInfoDepth = 0;
+            lastInfoAt = System.nanoTime();
+            search = player.findBestMoveAsync(searched);
+            SearchHandle handle = search;
+            infoTask = infoTimer.scheduleAtFixedRate(() -> info(handle, false), INFO_POLL_MS, INFO_POLL_MS,
+                    TimeUnit.MILLISECONDS);
+            handle.whenDone((move, error) -> finished(handle, searched));
+        }
+    }
+
+    // Thread da busca: manda o bestmove (ou guarda, numa busca infinita sem stop)
+    private synchronized void finished(SearchHandle handle, Game searched) {
+        if (handle != search) return;
+        infoTask.cancel(false);
+        info(handle, true);
+        String best = toUci(searched, handle.move());
+        if (infinite && !stopped) heldBestMove = best;
+        else sendBestMove(best);
+    }
+
+    private synchronized void stop() {
+        if (search == null) return;
+        stopped = true;
+        if (heldBestMove != null) {
+            sendBestMove(heldBestMove);
+            return;
+        }
+        SearchHandle handle = search;
+        handle.stop();
+        // Espera o bestmove sair (a busca percebe o stop em poucos milhares de nós)
+        while (search == handle) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void sendBestMove(String best) {
+        send("bestmove " + best);
+        search = null;
+        heldBestMove = null;
+        notifyAll();
+    }
+
+    // Linha "info": a cada iteração nova, ou a cada INFO_IDLE_MS só com nós e tempo
+    private synchronized void info(SearchHandle handle, boolean last) {
+        if (handle != search) return;
+        SearchStats s = ai.searchStats();
+        long now = System.nanoTime();
+        boolean newDepth = s.depth() > lastInfoDepth;
+        if (!newDepth && !last && now - lastInfoAt < INFO_IDLE_MS * 1_000_000L) return;
+        lastInfoAt = now;
+        StringBuilder sb = new StringBuilder(128).append("info");
+        if (newDepth || last) {
+            lastInfoDepth = s.depth();
+            sb.append(" depth ").append(s.depth());
+            int mate = s.mateIn();
+            if (mate != 0) sb.append(" score mate ").append(mate);
+            else sb.append(" score cp ").append(s.score());
+        }
+        sb.append(" nodes ").append(s.nodes())
+          .append(" nps ").append(s.nodesPerSecond())
+          .append(" time ").append(s.elapsedMillis());
+        int[] pv = s.pv();
+        if ((newDepth || last) && pv.length > 0) {
+            sb.append(" pv");
+            for (int m : pv) sb.append(' ').append(Moves.toString(m));
+        }
+        send(sb.toString());
+    }
+
+    // Lance do AIPlayer em notação UCI, com a promoção que ele escolheu
+    private static String toUci(Game g, int move) {
+        if (move == Moves.NONE) {
+            // Sem resultado (stop antes de a busca começar): qualquer lance legal serve
+            MoveList legal = new MoveList();
+            g.legalMoves(legal);
+            return legal.isEmpty() ? "0000" : Moves.toString(legal.get(0));
+        }
+        return Moves.toString(move);
+    }
+
+    private AIPlayer engine() {
+        if (ai == null) {
+            ai = new AIPlayer(AIDifficulty.HARD, hashMb);
+            ai.setThreads(threads);
+            if (ownBook) ai.setOpeningBook(OpeningBook.openIfExists(Path.of("resources", "book.bin")));
+            ai.setTablebases(Tablebases.openIfExists(Path.of("resources", "tb")));
+        }
+        return ai;
+    }
+
+    private void shutdownEngine() {
+        stop();
+        if (ai != null) ai.shutdown();
+        ai = null;
+    }
+
+    private void quit() {
+        shutdownEngine();
+        infoTimer.shutdownNow();
+    }
+
+    private synchronized void send(String line) {
+        try {
+            out.write(line.getBytes(StandardCharsets.US_ASCII));
+            out.write('\n');
+            out.flush();
+        } catch (IOException e) {
+            // Sem saída não há a quem responder; o laço termina no fim da entrada
+        }
+    }
+}
@@ -0,0 +1,236 @@
+// ========================= src/model/board/Attacks.java =========================
+package model.board;
+
+/**
+ * Tabelas de ataque pré-calculadas, indexadas pela casa 0..63 do Board.
+ *
+ * Cavalo, rei e peão: uma máscara por casa. Torre e bispo: magic bitboards.
+ * Para cada casa guarda-se a máscara das casas que podem bloquear o raio
+ * (sem as bordas); (ocupação & máscara) * mágico >>> shift dá um índice
+ * único numa tabela com os ataques daquela configuração.
+ *
+ * Os números mágicos abaixo foram encontrados por busca aleatória (ver
+ * findMagic) para esta numeração de casas; a carga da classe só preenche as
+ * tabelas e confere que nenhum deles colide.
+ */
+public final class Attacks {
+    private static final long[] KNIGHT = new long[64];
+    private static final long[] KING = new long[64];
+    private static final long[][] PAWN = new long[2][64]; // [Board.WHITE/BLACK][casa]
+
+    private static final long[] ROOK_MASK = new long[64];
+    private static final int[] ROOK_SHIFT = new int[64];
+    private static final int[] ROOK_OFFSET = new int[64];
+    private static final long[] BISHOP_MASK = new long[64];
+    private static final int[] BISHOP_SHIFT = new int[64];
+    private static final int[] BISHOP_OFFSET = new int[64];
+    private static final long[] ROOK_TABLE;
+    private static final long[] BISHOP_TABLE;
+
+    // [a * 64 + b]: casas estritamente entre a e b / linha inteira por a e b (0 se não alinhadas)
+    private static final long[] BETWEEN = new long[64 * 64];
+    private static final long[] LINE = new long[64 * 64];
+
+    private static final int[][] ROOK_DIRS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long[] ROOK_MAGIC = {
+        0x2080002080400010L, 0x00C0002001401000L, 0x2100110008402002L, 0x0880080081041000L,
+        0x0200020020041008L, 0x2300040008010012L, 0x0C00283004008201L, 0x0180010000407A80L,
+        0x0168800080400020L, 0x0010400040201000L, 0x1001002001001048L, 0x1001002408100100L,
+        0x0801000408010012L, 0x4001000209000400L, 0x08A20004C8020001L, 0x2002801145002280L,
+        0x0080860021004200L, 0x001000C009402002L, 0x00B0002004002800L, 0x100A808010020800L,
+        0x8101010008000410L, 0x0244008002000480L, 0x0000040010810208L, 0x2000020000448534L,
+        0x4104400480008033L, 0x0000810100204000L, 0x0440430900200010L, 0x4600240900100100L,
+        0x0060080080040080L, 0x0001000300080400L, 0x0004084400011002L, 0x0023040200008041L,
+        0x0580050043002080L, 0x0400804002802008L, 0x0001002001004010L, 0x1000200901001000L,
+        0x4410800801800C00L, 0xA012003806001004L, 0x0020100104008802L, 0x0004808402000041L,
+        0x0010400170898000L, 0x0080500020004004L, 0x1040408012020020L, 0x8010040008004040L,
+        0x2001080100110004L, 0x0000020004008080L, 0x0021010810040002L, 0x0800008C43020024L,
+        0x0000800021005100L, 0x0070201040008080L, 0x0000D04282006A00L, 0x0010014400080240L,
+        0x0001080110050100L, 0x0012000810240600L, 0x0402000801040200L, 0x028100108A004100L,
+        0x0050800300102045L, 0x8208210040120882L, 0x8010600101183441L, 0x020B000910006045L,
+        0x0241001002480005L, 0x0081000400880241L, 0x0000009008024124L, 0x0048122980410402L,
+    };
+    private static final long[] BISHOP_MAGIC = {
+        0x0848020822040013L, 0x8010A40085821200L, 0x0008008430840822L, 0x0808048108040000L,
+        0x1304042100008104L, 0x5001012010204023L, 0x81048801B8200420L, 0x200A008084012000L,
+        0x0040102001042084L, 0x840A505042428020L, 0x0000700102202920L, 0x44101C0C10800002L,
+        0x0040040422000000L, 0x0180020802090202L, 0x4020020811041202L, 0x000104308C042000L,
+        0x4140661002424400L, 0x0028012008010460L, 0x0188062102002A00L, 0x0014004840102008L,
+        0x0105000290400002L, 0x8001022200410400L, 0x104A041918013446L, 0x008A000082008238L,
+        0x04A0060008100430L, 0x0008220008820801L, 0x2508041208005010L, 0x4008080200202020L,
+        0x2441001013004000L, 0x0030008060407000L, 0x4008108000420800L, 0x0012021050290100L,
+        0x0210080482200500L, 0xCC01112048100480L, 0x0020402806500440L, 0x00048E0080580080L,
+        0x0040102020020080L, 0x0028010440080807L, 0x4601041108008800L, 0x8040810E04104200L,
+        0x901210110400088AL, 0xA003080212081050L, 0x00C1004048401004L, 0x900000A014400800L,
+        0x0008021040405401L, 0x4020008206002090L, 0x0004190424030100L, 0x0424008A02026250L,
+        0x8004088250900040L, 0x1C00430088A04200L, 0x0001020094040001L, 0x8040210020880061L,
+        0x2010040450442032L, 0x0800840850044001L, 0x0004040802140004L, 0x0004080A04222020L,
+        0x8088802110022000L, 0x1081A10416114400L, 0x0205010A24060820L, 0x0000000720411080L,
+        0x1008000208430400L, 0x580C026028810840L, 0x802020441020A110L, 0x12C0022401020018L,
+    };
+
+    static {
+        int[][] knight = {{-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}};
+        int[][] king = {{-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}};
+        for (int sq = 0; sq < 64; sq++) {
+            int r = sq >>> 3, c = sq & 7;
+            for (int[] d : knight) KNIGHT[sq] |= bit(r + d[0], c + d[1]);
+            for (int[] d : king) KING[sq] |= bit(r + d[0], c + d[1]);
+            // Brancas avançam para a linha 0
+            PAWN[Board.WHITE][sq] = bit(r - 1, c - 1) | bit(r - 1, c + 1);
+            PAWN[Board.BLACK][sq] = bit(r + 1, c - 1) | bit(r + 1, c + 1);
+        }
+        ROOK_TABLE = initMagics(ROOK_DIRS, ROOK_MASK, ROOK_MAGIC, ROOK_SHIFT, ROOK_OFFSET);
+        BISHOP_TABLE = initMagics(BISHOP_DIRS, BISHOP_MASK, BISHOP_MAGIC, BISHOP_SHIFT, BISHOP_OFFSET);
+
+        for (int a = 0; a < 64; a++) {
+            for (int b = 0; b < 64; b++) {
+                if (a == b) continue;
+                long ab = (1L << a) | (1L << b);
+                if ((rook(a, 0) & (1L << b)) != 0) {
+                    BETWEEN[a * 64 + b] = rook(a, 1L << b) & rook(b, 1L << a);
+                    LINE[a * 64 + b] = (rook(a, 0) & rook(b, 0)) | ab;
+                } else if ((bishop(a, 0) & (1L << b)) != 0) {
+                    BETWEEN[a * 64 + b] = bishop(a, 1L << b) & bishop(b, 1L << a);
+                    LINE[a * 64 + b] = (bishop(a, 0) & bishop(b, 0)) | ab;
+                }
+            }
+        }
+    }
+
+    private Attacks() { }
+
+    public static long knight(int sq) { return KNIGHT[sq]; }
+    public static long king(int sq) { return KING[sq]; }
+
+    /** Casas atacadas por um peão da cor indicada que está em sq. */
+    public static long pawn(boolean white, int sq) { return PAWN[Board.color(white)][sq]; }
+
+    public static long rook(int sq, long occupied) {
+        return ROOK_TABLE[ROOK_OFFSET[sq] + (int) (((occupied & ROOK_MASK[sq]) * ROOK_MAGIC[sq]) >>> ROOK_SHIFT[sq])];
+    }
+
+    public static long bishop(int sq, long occupied) {
+        return BISHOP_TABLE[BISHOP_OFFSET[sq] + (int) (((occupied & BISHOP_MASK[sq]) * BISHOP_MAGIC[sq]) >>> BISHOP_SHIFT[sq])];
+    }
+
+    public static long queen(int sq, long occupied) {
+        return rook(sq, occupied) | bishop(sq, occupied);
+    }
+
+    /** Casas estritamente entre a e b, se estiverem na mesma linha, coluna ou diagonal. */
+    public static long between(int a, int b) {
+        return BETWEEN[a * 64 + b];
+    }
+
+    /** A linha (coluna, diagonal) inteira que passa por a e b, ou 0 se não alinhadas. */
+    public static long line(int a, int b) {
+        return LINE[a * 64 + b];
+    }
+
+    // ==== Construção das tabelas ====
+
+    private static long[] initMagics(int[][] dirs, long[] masks, long[] magics, int[] shifts, int[] offsets) {
+        int total = 0;
+        for (int sq = 0; sq < 64; sq++) {
+            masks[sq] = relevantMask(sq, dirs);
+            offsets[sq] = total;
+            total += 1 << Long.bitCount(masks[sq]);
+        }
+        long[] table = new long[total];
+        for (int sq = 0; sq < 64; sq++) {
+            int bits = Long.bitCount(masks[sq]);
+            int size = 1 << bits;
+            long[] occupancies = new long[size];
+            long[] attacks = new long[size];
+            long subset = 0;
+            for (int i = 0; i < size; i++) {
+                occupancies[i] = subset;
+                attacks[i] = slidingAttacks(sq, subset, dirs);
+                subset = (subset - masks[sq]) & masks[sq]; // próximo subconjunto (carry-rippler)
+            }
+            shifts[sq] = 64 - bits;
+            if (!fill(magics[sq], shifts[sq], occupancies, attacks, table, offsets[sq])) {
+                throw new IllegalStateException("Número mágico inválido na casa " + sq);
+            }
+        }
+        return table;
+    }
+
+    /** Preenche a tabela da casa; false se o mágico levar duas ocupações com ataques diferentes ao mesmo índice. */
+    private static boolean fill(long magic, int shift, long[] occupancies, long[] attacks, long[] table, int offset) {
+        boolean[] used = new boolean[occupancies.length];
+        for (int i = 0; i < occupancies.length; i++) {
+            int idx = (int) ((occupancies[i] * magic) >>> shift);
+            if (!used[idx]) {
+                used[idx] = true;
+                table[offset + idx] = attacks[i];
+            } else if (table[offset + idx] != attacks[i]) {
+                return false; // colisão destrutiva
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Procura um número mágico para a casa (poucos bits ligados funcionam
+     * melhor). Usado para gerar as constantes acima; fica aqui para o caso de
+     * a numeração das casas mudar.
+     */
+    static long findMagic(long mask, int shift, long[] occupancies, long[] attacks, long seed) {
+        long[] scratch = new long[occupancies.length];
+        long state = seed;
+        while (true) {
+            long magic = 0xFFFFFFFFFFFFFFFFL;
+            for (int i = 0; i < 3; i++) {
+                state ^= state << 13;
+                state ^= state >>> 7;
+                state ^= state << 17;
+                magic &= state;
+            }
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) continue;
+            if (fill(magic, shift, occupancies, attacks, scratch, 0)) return magic;
+        }
+    }
+
+    private static long relevantMask(int sq, int[][] dirs) {
+        long mask = 0;
+        int r0 = sq >>> 3, c0 = sq & 7;
+        for (int[] d : dirs) {
+            int r = r0 + d[0], c = c0 + d[1];
+            // A última casa do raio nunca bloqueia nada além dela
+            while (inside(r + d[0], c + d[1])) {
+                mask |= 1L << ((r << 3) | c);
+                r += d[0];
+                c += d[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slidingAttacks(int sq, long occupied, int[][] dirs) {
+        long attacks = 0;
+        int r0 = sq >>> 3, c0 = sq & 7;
+        for (int[] d : dirs) {
+            int r = r0 + d[0], c = c0 + d[1];
+            while (inside(r, c)) {
+                long b = 1L << ((r << 3) | c);
+                attacks |= b;
+                if ((occupied & b) != 0) break;
+                r += d[0];
+                c += d[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static long bit(int r, int c) {
+        return inside(r, c) ? 1L << ((r << 3) | c) : 0L;
+    }
+
+    private static boolean inside(int r, int c) {
+        return r >= 0 && r < 8 && c >= 0 && c < 8;
+    }
+}
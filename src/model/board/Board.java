@@ -1,60 +1,437 @@
-// ========================= src/model/board/Board.java =========================
-package model.board;
-
-import model.pieces.Piece;
-import java.util.ArrayList;
-import java.util.List;
-
-public class Board {
-    private final Piece[][] grid = new Piece[8][8];
-
-    /** Verifica se a posição está dentro do tabuleiro (0..7). */
-    public boolean isInside(Position p) {
-        return p != null && p.isValid();
-    }
-
-    public Piece get(Position p) {
-        return isInside(p) ? grid[p.getRow()][p.getColumn()] : null;
-    }
-
-    public void set(Position p, Piece piece) {
-        if (!isInside(p)) return;
-        grid[p.getRow()][p.getColumn()] = piece;
-        if (piece != null) {
-            piece.setPosition(p);
-        }
-    }
-
-    /** Atalho usado no setup inicial. */
-    public void placePiece(Piece piece, Position p) {
-        set(p, piece);
-    }
-
-    /** Lista todas as peças de uma cor. */
-    public List<Piece> pieces(boolean white) {
-        List<Piece> out = new ArrayList<>();
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece pc = grid[r][c];
-                if (pc != null && pc.isWhite() == white) out.add(pc);
-            }
-        }
-        return out;
-    }
-
-    /** Cópia profunda do tabuleiro (clona peças para o novo Board). */
-    public Board copy() {
-        Board b = new Board();
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = grid[r][c];
-                if (p != null) {
-                    Piece cp = p.copyFor(b);
-                    b.grid[r][c] = cp;
-                    cp.setPosition(new Position(r, c));
-                }
-            }
-        }
-        return b;
-    }
-}
+// ========================= src/model/board/Board.java =========================
+package model.board;
+
+import model.pieces.Piece;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Tabuleiro em bitboards: uma máscara de 64 bits por (cor, tipo) de peça
+ * mais as máscaras de ocupação por cor. Casa = linha * 8 + coluna, com a
+ * linha 0 sendo a oitava fileira (a8 = 0, h1 = 63), igual a {@link Position}.
+ * Um array de 64 posições guarda os objetos Piece para get() em O(1).
+ *
+ * O Board também guarda o estado da posição (lado a jogar, direitos de roque,
+ * casa de en passant, contador de meio-lances) e aplica/desfaz lances no
+ * próprio objeto com makeMove/unmakeMove, sem copiar o tabuleiro.
+ */
+public class Board {
+    public static final int WHITE = 0, BLACK = 1;
+    public static final int CASTLE_WK = 1, CASTLE_WQ = 2, CASTLE_BK = 4, CASTLE_BQ = 8;
+
+    // Direitos de roque que sobrevivem a um lance que sai de/chega em cada casa
+    private static final int[] CASTLE_MASK = new int[64];
+    static {
+        Arrays.fill(CASTLE_MASK, 15);
+        CASTLE_MASK[square(7, 4)] = 15 & ~(CASTLE_WK | CASTLE_WQ);
+        CASTLE_MASK[square(7, 7)] = 15 & ~CASTLE_WK;
+        CASTLE_MASK[square(7, 0)] = 15 & ~CASTLE_WQ;
+        CASTLE_MASK[square(0, 4)] = 15 & ~(CASTLE_BK | CASTLE_BQ);
+        CASTLE_MASK[square(0, 7)] = 15 & ~CASTLE_BK;
+        CASTLE_MASK[square(0, 0)] = 15 & ~CASTLE_BQ;
+    }
+
+    private final Piece[] squares = new Piece[64];
+    private final long[] pieceBB = new long[12]; // [cor * 6 + tipo]
+    private final long[] colorBB = new long[2];
+    private long occupied;
+
+    private boolean whiteToMove = true;
+    private int castlingRights;
+    private int epSquare = -1;
+    private int halfmoveClock;
+    private int fullmoveNumber = 1; // começa em 1 e sobe depois de cada lance das pretas
+    private long key; // chave de Zobrist, mantida a cada alteração
+    // Avaliação incremental (material + peça-casa), do ponto de vista das brancas
+    private int mgScore, egScore, phase;
+
+    // Chaves das posições anteriores (uma por lance aplicado), para repetição
+    private long[] keyHistory = new long[128];
+    private int keyCount;
+
+    // Pilha de desfazer: um long compacto por lance + as peças envolvidas.
+    // Os arrays só crescem, então aplicar/desfazer não aloca nada.
+    private long[] undoInfo = new long[128];
+    private Piece[] undoMover = new Piece[128];
+    private Piece[] undoCaptured = new Piece[128];
+    private Position[] undoFromPos = new Position[128];
+    private int undoCount;
+
+    /** Verifica se a posição está dentro do tabuleiro (0..7). */
+    public boolean isInside(Position p) {
+        return p != null && p.isValid();
+    }
+
+    /** Índice 0..63 de uma casa. */
+    public static int square(int row, int column) {
+        return (row << 3) | column;
+    }
+
+    public static int square(Position p) {
+        return square(p.getRow(), p.getColumn());
+    }
+
+    public static int color(boolean white) {
+        return white ? WHITE : BLACK;
+    }
+
+    public Piece get(Position p) {
+        return isInside(p) ? squares[square(p)] : null;
+    }
+
+    public Piece get(int sq) {
+        return squares[sq];
+    }
+
+    public void set(Position p, Piece piece) {
+        if (!isInside(p)) return;
+        int sq = square(p);
+        key ^= epKey(); // a parte de en passant depende dos peões ao redor
+        remove(sq);
+        if (piece != null) {
+            put(sq, piece);
+            piece.setPosition(p);
+        }
+        key ^= epKey();
+    }
+
+    /** Atalho usado no setup inicial. */
+    public void placePiece(Piece piece, Position p) {
+        set(p, piece);
+    }
+
+    // Remove o ocupante da casa (se houver) de todas as máscaras.
+    private void remove(int sq) {
+        Piece old = squares[sq];
+        if (old == null) return;
+        long bit = 1L << sq;
+        int c = color(old.isWhite());
+        int ct = c * 6 + old.getType();
+        pieceBB[ct] &= ~bit;
+        colorBB[c] &= ~bit;
+        occupied &= ~bit;
+        squares[sq] = null;
+        key ^= Zobrist.pieceSquare(ct, sq);
+        mgScore -= PieceSquareTables.MG[(ct << 6) | sq];
+        egScore -= PieceSquareTables.EG[(ct << 6) | sq];
+        phase -= PieceSquareTables.PHASE_WEIGHT[old.getType()];
+    }
+
+    private void put(int sq, Piece piece) {
+        long bit = 1L << sq;
+        int c = color(piece.isWhite());
+        int ct = c * 6 + piece.getType();
+        pieceBB[ct] |= bit;
+        colorBB[c] |= bit;
+        occupied |= bit;
+        squares[sq] = piece;
+        key ^= Zobrist.pieceSquare(ct, sq);
+        mgScore += PieceSquareTables.MG[(ct << 6) | sq];
+        egScore += PieceSquareTables.EG[(ct << 6) | sq];
+        phase += PieceSquareTables.PHASE_WEIGHT[piece.getType()];
+    }
+
+    /** Máscara das peças de um tipo (Piece.PAWN..Piece.KING) e cor. */
+    public long pieces(boolean white, int type) {
+        return pieceBB[color(white) * 6 + type];
+    }
+
+    /** Máscara de todas as peças de uma cor. */
+    public long occupancy(boolean white) {
+        return colorBB[color(white)];
+    }
+
+    /** Máscara de todas as casas ocupadas. */
+    public long occupied() {
+        return occupied;
+    }
+
+    /** Casa (0..63) do rei da cor, ou -1 se não houver rei. */
+    public int kingSquare(boolean white) {
+        long k = pieces(white, Piece.KING);
+        return k == 0 ? -1 : Long.numberOfTrailingZeros(k);
+    }
+
+    /** Lista todas as peças de uma cor. */
+    public List<Piece> pieces(boolean white) {
+        List<Piece> out = new ArrayList<>(16);
+        for (long bb = colorBB[color(white)]; bb != 0; bb &= bb - 1) {
+            out.add(squares[Long.numberOfTrailingZeros(bb)]);
+        }
+        return out;
+    }
+
+    // ==== Estado da posição ====
+
+    public boolean whiteToMove() { return whiteToMove; }
+    public int castlingRights() { return castlingRights; }
+    /** Casa (0..63) que pode ser capturada en passant, ou -1. */
+    public int enPassantSquare() { return epSquare; }
+
+    public void setWhiteToMove(boolean whiteToMove) {
+        if (whiteToMove == this.whiteToMove) return;
+        key ^= epKey();
+        this.whiteToMove = whiteToMove;
+        key ^= Zobrist.BLACK_TO_MOVE ^ epKey();
+    }
+
+    public void setCastlingRights(int rights) {
+        key ^= Zobrist.CASTLING[castlingRights];
+        this.castlingRights = rights & 15;
+        key ^= Zobrist.CASTLING[castlingRights];
+    }
+
+    public void setEnPassantSquare(int sq) {
+        key ^= epKey();
+        this.epSquare = sq;
+        key ^= epKey();
+    }
+    public int halfmoveClock() { return halfmoveClock; }
+    public void setHalfmoveClock(int halfmoveClock) { this.halfmoveClock = halfmoveClock; }
+    /** Número do lance, como na FEN (1 na posição inicial). */
+    public int fullmoveNumber() { return fullmoveNumber; }
+    public void setFullmoveNumber(int fullmoveNumber) { this.fullmoveNumber = fullmoveNumber; }
+
+    /**
+     * Esvazia o tabuleiro e volta o estado ao de um Board novo (brancas a
+     * jogar, sem roque nem en passant, sem histórico). Permite reaproveitar
+     * o objeto ao carregar muitas posições.
+     */
+    public void clear() {
+        for (long bb = occupied; bb != 0; bb &= bb - 1) remove(Long.numberOfTrailingZeros(bb));
+        whiteToMove = true;
+        castlingRights = 0;
+        epSquare = -1;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        keyCount = 0;
+        Arrays.fill(undoMover, 0, undoCount, null);
+        Arrays.fill(undoCaptured, 0, undoCount, null);
+        Arrays.fill(undoFromPos, 0, undoCount, null);
+        undoCount = 0;
+        key = computeKey();
+    }
+
+    // ==== Avaliação ====
+
+    /**
+     * Material + peça-casa, interpolando meio-jogo e final pela fase; positivo
+     * favorece as brancas. Mantida a cada peça posta/retirada, custa O(1).
+     */
+    public int evaluate() {
+        return PieceSquareTables.taper(mgScore, egScore, phase);
+    }
+
+    /** Fase do jogo: 0 (só reis e peões) até PieceSquareTables.MAX_PHASE. */
+    public int phase() {
+        return phase;
+    }
+
+    // ==== Chave de Zobrist ====
+
+    /** Chave de Zobrist da posição (peças, lado a jogar, roque, en passant). */
+    public long key() { return key; }
+
+    /** Recalcula a chave do zero; deve sempre bater com key(). */
+    public long computeKey() {
+        long k = 0;
+        for (long bb = occupied; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            Piece p = squares[sq];
+            k ^= Zobrist.pieceSquare(color(p.isWhite()) * 6 + p.getType(), sq);
+        }
+        if (!whiteToMove) k ^= Zobrist.BLACK_TO_MOVE;
+        return k ^ Zobrist.CASTLING[castlingRights] ^ epKey();
+    }
+
+    /**
+     * Parte de en passant da chave: a coluna só entra se algum peão do lado a
+     * jogar puder de fato capturar, para que posições iguais tenham chaves iguais.
+     */
+    private long epKey() {
+        if (epSquare < 0) return 0;
+        int row = epSquare >>> 3, col = epSquare & 7;
+        // O peão que captura fica uma fileira "atrás" da casa de en passant
+        int from = square(whiteToMove ? row + 1 : row - 1, 0);
+        long adjacent = 0;
+        if (col > 0) adjacent |= 1L << (from + col - 1);
+        if (col < 7) adjacent |= 1L << (from + col + 1);
+        return (pieces(whiteToMove, Piece.PAWN) & adjacent) != 0 ? Zobrist.EP_FILE[col] : 0;
+    }
+
+    /**
+     * Quantas vezes a posição atual já ocorreu antes. Só olha para trás até o
+     * último lance irreversível (captura ou lance de peão), de 2 em 2 plies.
+     */
+    public int repetitionCount() {
+        int count = 0;
+        int limit = Math.max(0, keyCount - halfmoveClock);
+        for (int i = keyCount - 2; i >= limit; i -= 2) {
+            if (keyHistory[i] == key) count++;
+        }
+        return count;
+    }
+
+    // ==== Aplicar / desfazer lances ====
+
+    /**
+     * Aplica o lance no próprio tabuleiro e empilha o necessário para
+     * desfazê-lo. O lance deve ser ao menos pseudo-legal.
+     */
+    public void makeMove(Move m) {
+        int promo = m.getPromotion() == null ? -1 : promotionType(m.getPromotion());
+        int castle = m.isCastleKingSide() ? 1 : m.isCastleQueenSide() ? 2 : 0;
+        make(square(m.getFrom()), square(m.getTo()), promo, castle, m.isEnPassant());
+    }
+
+    /** Aplica um lance codificado (ver {@link Moves}); caminho sem alocação da busca. */
+    public void makeMove(int move) {
+        int flags = Moves.flags(move);
+        int castle = flags == Moves.CASTLE_KING ? 1 : flags == Moves.CASTLE_QUEEN ? 2 : 0;
+        make(Moves.from(move), Moves.to(move),
+                Moves.isPromotion(move) ? Moves.promotionType(move) : -1, castle, flags == Moves.EN_PASSANT);
+    }
+
+    /** Desfaz o último lance aplicado com makeMove. */
+    public void unmakeMove() {
+        int i = --undoCount;
+        long info = undoInfo[i];
+        Piece mover = undoMover[i];
+        Piece captured = undoCaptured[i];
+        Position fromPos = undoFromPos[i];
+        undoMover[i] = null;
+        undoCaptured[i] = null;
+        undoFromPos[i] = null;
+
+        int from = (int) (info & 63);
+        int to = (int) (info >>> 6 & 63);
+        int capSq = (int) (info >>> 12 & 63);
+        int castle = (int) (info >>> 30 & 3);
+
+        whiteToMove = !whiteToMove;
+        if (!whiteToMove) fullmoveNumber--;
+        if (castle != 0) {
+            int rookFrom = rookFrom(to, castle), rookTo = rookTo(to, castle);
+            Piece rook = squares[rookTo];
+            remove(rookTo);
+            put(rookFrom, rook);
+            rook.setPosition(Square.of(rookFrom));
+            rook.setMoved(false);
+        }
+        remove(to); // pode ser a peça promovida, que é descartada
+        put(from, mover);
+        mover.setPosition(fromPos);
+        mover.setMoved((info >>> 18 & 1) != 0);
+        if (captured != null) {
+            put(capSq, captured);
+        }
+        castlingRights = (int) (info >>> 19 & 15);
+        epSquare = (int) (info >>> 23 & 127) - 1;
+        halfmoveClock = (int) (info >>> 32 & 1023);
+        key = keyHistory[--keyCount];
+    }
+
+    /** Quantos lances podem ser desfeitos. */
+    public int undoDepth() {
+        return undoCount;
+    }
+
+    private void make(int from, int to, int promoType, int castle, boolean enPassant) {
+        Piece mover = squares[from];
+        int capSq = enPassant ? (from & ~7) | (to & 7) : to;
+        Piece captured = squares[capSq];
+        if (undoCount == undoInfo.length) growUndo();
+        undoInfo[undoCount] = from | to << 6 | capSq << 12
+                | (mover.hasMoved() ? 1L : 0L) << 18
+                | (long) castlingRights << 19
+                | (long) (epSquare + 1) << 23
+                | (long) castle << 30
+                | (long) Math.min(halfmoveClock, 1023) << 32;
+        undoMover[undoCount] = mover;
+        undoCaptured[undoCount] = captured;
+        undoFromPos[undoCount] = mover.getPosition();
+        undoCount++;
+        if (keyCount == keyHistory.length) keyHistory = Arrays.copyOf(keyHistory, keyCount * 2);
+        keyHistory[keyCount++] = key;
+        key ^= epKey() ^ Zobrist.CASTLING[castlingRights];
+
+        boolean pawn = mover.getType() == Piece.PAWN;
+        if (captured != null) remove(capSq);
+        remove(from);
+        Piece placed = mover;
+        int toRow = to >>> 3;
+        if (pawn && (toRow == 0 || toRow == 7)) {
+            placed = Piece.create(promoType < 0 ? Piece.QUEEN : promoType, this, mover.isWhite());
+            placed.setMoved(true);
+        }
+        put(to, placed);
+        placed.setPosition(Square.of(to));
+        mover.setMoved(true);
+
+        if (castle != 0) {
+            int rookFrom = rookFrom(to, castle), rookTo = rookTo(to, castle);
+            Piece rook = squares[rookFrom];
+            remove(rookFrom);
+            put(rookTo, rook);
+            rook.setPosition(Square.of(rookTo));
+            rook.setMoved(true);
+        }
+
+        halfmoveClock = (pawn || captured != null) ? 0 : halfmoveClock + 1;
+        epSquare = (pawn && Math.abs(to - from) == 16) ? (from + to) >>> 1 : -1;
+        castlingRights &= CASTLE_MASK[from] & CASTLE_MASK[to];
+        if (!whiteToMove) fullmoveNumber++;
+        whiteToMove = !whiteToMove;
+        key ^= Zobrist.CASTLING[castlingRights] ^ Zobrist.BLACK_TO_MOVE ^ epKey();
+    }
+
+    // Casas da torre no roque, a partir do destino do rei (g/c na mesma fileira)
+    private static int rookFrom(int kingTo, int castle) {
+        return castle == 1 ? kingTo + 1 : kingTo - 2;
+    }
+
+    private static int rookTo(int kingTo, int castle) {
+        return castle == 1 ? kingTo - 1 : kingTo + 1;
+    }
+
+    private static int promotionType(char c) {
+        return switch (Character.toUpperCase(c)) {
+            case 'R' -> Piece.ROOK;
+            case 'B' -> Piece.BISHOP;
+            case 'N' -> Piece.KNIGHT;
+            default -> Piece.QUEEN;
+        };
+    }
+
+    private void growUndo() {
+        int n = undoInfo.length * 2;
+        undoInfo = Arrays.copyOf(undoInfo, n);
+        undoMover = Arrays.copyOf(undoMover, n);
+        undoCaptured = Arrays.copyOf(undoCaptured, n);
+        undoFromPos = Arrays.copyOf(undoFromPos, n);
+    }
+
+    /**
+     * Cópia profunda do tabuleiro (clona peças para o novo Board) com o
+     * estado da posição e o histórico de chaves. A pilha de desfazer não é copiada.
+     */
+    public Board copy() {
+        Board b = new Board();
+        for (long bb = occupied; bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            Piece cp = squares[sq].copyFor(b);
+            b.put(sq, cp);
+            cp.setPosition(Square.of(sq));
+        }
+        b.whiteToMove = whiteToMove;
+        b.castlingRights = castlingRights;
+        b.epSquare = epSquare;
+        b.halfmoveClock = halfmoveClock;
+        b.fullmoveNumber = fullmoveNumber;
+        b.key = key;
+        b.keyHistory = Arrays.copyOf(keyHistory, keyHistory.length);
+        b.keyCount = keyCount;
+        return b;
+    }
+}
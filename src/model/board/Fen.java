@@ -0,0 +1,181 @@
+// ========================= src/model/board/Fen.java =========================
+package model.board;
+
+import model.pieces.Piece;
+
+/**
+ * Notação FEN ("rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1"):
+ * peças, lado a jogar, roque, en passant e os dois contadores de lance.
+ * Os contadores são opcionais na leitura (0 e 1 se faltarem).
+ */
+public final class Fen {
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_CHARS = "pnbrqk";
+
+    private Fen() { }
+
+    /** Tabuleiro novo com a posição de fen. */
+    public static Board parse(String fen) {
+        Board b = new Board();
+        load(b, fen);
+        return b;
+    }
+
+    /**
+     * Troca o conteúdo de b pela posição de fen (o histórico é descartado).
+     * @throws IllegalArgumentException se a FEN for inválida
+     */
+    public static void load(Board b, String fen) {
+        String[] f = fen.trim().split("\\s+");
+        if (f.length < 4) throw new IllegalArgumentException("FEN incompleta: " + fen);
+        b.clear();
+        int row = 0, col = 0;
+        for (char ch : f[0].toCharArray()) {
+            if (ch == '/') {
+                if (col != 8) throw new IllegalArgumentException("Fileira com " + col + " casas: " + fen);
+                row++;
+                col = 0;
+            } else if (ch >= '1' && ch <= '8') {
+                col += ch - '0';
+            } else {
+                int type = PIECE_CHARS.indexOf(Character.toLowerCase(ch));
+                if (type < 0 || row > 7 || col > 7) throw new IllegalArgumentException("Peça inválida '" + ch + "': " + fen);
+                b.set(Square.of(row, col++), Piece.create(type, b, Character.isUpperCase(ch)));
+            }
+        }
+        if (row != 7 || col != 8) throw new IllegalArgumentException("Tabuleiro incompleto: " + fen);
+        if (Long.bitCount(b.pieces(true, Piece.KING)) != 1 || Long.bitCount(b.pieces(false, Piece.KING)) != 1) {
+            throw new IllegalArgumentException("Cada lado precisa de exatamente um rei: " + fen);
+        }
+
+        if (!f[1].equals("w") && !f[1].equals("b")) throw new IllegalArgumentException("Lado a jogar inválido: " + fen);
+        b.setWhiteToMove(f[1].equals("w"));
+        int rights = 0;
+        for (char ch : f[2].toCharArray()) {
+            switch (ch) {
+                case 'K' -> rights |= Board.CASTLE_WK;
+                case 'Q' -> rights |= Board.CASTLE_WQ;
+                case 'k' -> rights |= Board.CASTLE_BK;
+                case 'q' -> rights |= Board.CASTLE_BQ;
+                case '-' -> { }
+                default -> throw new IllegalArgumentException("Roque inválido: " + fen);
+            }
+        }
+        b.setCastlingRights(rights & castlingPossible(b));
+        b.setEnPassantSquare(f[3].equals("-") ? -1 : enPassantSquare(b, square(f[3], fen), fen));
+        try {
+            b.setHalfmoveClock(f.length > 4 ? Integer.parseInt(f[4]) : 0);
+            b.setFullmoveNumber(f.length > 5 ? Math.max(1, Integer.parseInt(f[5])) : 1);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Contador inválido: " + fen);
+        }
+        // Quem acabou de jogar não pode ter deixado o rei em xeque (o gerador ofereceria capturá-lo)
+        boolean white = b.whiteToMove();
+        if (MoveGenerator.isAttacked(b, b.kingSquare(!white), white)) {
+            throw new IllegalArgumentException("Rei de quem não joga está em xeque: " + fen);
+        }
+        setMovedFlags(b);
+    }
+
+    /** FEN da posição atual de b. */
+    public static String toFen(Board b) {
+        StringBuilder sb = new StringBuilder(90);
+        for (int row = 0; row < 8; row++) {
+            int empty = 0;
+            for (int col = 0; col < 8; col++) {
+                Piece p = b.get(Board.square(row, col));
+                if (p == null) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) sb.append(empty);
+                empty = 0;
+                char c = PIECE_CHARS.charAt(p.getType());
+                sb.append(p.isWhite() ? Character.toUpperCase(c) : c);
+            }
+            if (empty > 0) sb.append(empty);
+            if (row < 7) sb.append('/');
+        }
+        sb.append(b.whiteToMove() ? " w " : " b ");
+        int rights = b.castlingRights();
+        if (rights == 0) sb.append('-');
+        if ((rights & Board.CASTLE_WK) != 0) sb.append('K');
+        if ((rights & Board.CASTLE_WQ) != 0) sb.append('Q');
+        if ((rights & Board.CASTLE_BK) != 0) sb.append('k');
+        if ((rights & Board.CASTLE_BQ) != 0) sb.append('q');
+        sb.append(' ').append(b.enPassantSquare() < 0 ? "-" : Square.of(b.enPassantSquare()).toString());
+        sb.append(' ').append(b.halfmoveClock()).append(' ').append(b.fullmoveNumber());
+        return sb.toString();
+    }
+
+    private static int square(String name, String fen) {
+        if (name.length() != 2 || name.charAt(0) < 'a' || name.charAt(0) > 'h' || name.charAt(1) < '1' || name.charAt(1) > '8') {
+            throw new IllegalArgumentException("Casa de en passant inválida: " + fen);
+        }
+        return Board.square('8' - name.charAt(1), name.charAt(0) - 'a');
+    }
+
+    /**
+     * Direitos de roque que a posição permite: rei na casa inicial e a torre
+     * do lado no canto. Os outros são descartados em vez de recusar a FEN.
+     */
+    private static int castlingPossible(Board b) {
+        int possible = 0;
+        if (has(b, true, Piece.KING, 7, 4)) {
+            if (has(b, true, Piece.ROOK, 7, 7)) possible |= Board.CASTLE_WK;
+            if (has(b, true, Piece.ROOK, 7, 0)) possible |= Board.CASTLE_WQ;
+        }
+        if (has(b, false, Piece.KING, 0, 4)) {
+            if (has(b, false, Piece.ROOK, 0, 7)) possible |= Board.CASTLE_BK;
+            if (has(b, false, Piece.ROOK, 0, 0)) possible |= Board.CASTLE_BQ;
+        }
+        return possible;
+    }
+
+    private static boolean has(Board b, boolean white, int type, int row, int col) {
+        return (b.pieces(white, type) >>> Board.square(row, col) & 1) != 0;
+    }
+
+    /**
+     * A casa de en passant só vale logo depois de um avanço duplo: na 6ª fileira
+     * com as brancas a jogar (3ª com as pretas), vazia, com o peão adversário
+     * logo à frente e a casa de onde ele saiu vazia. Senão o gerador inventaria
+     * capturas en passant (a FEN da UCI vem de fora).
+     */
+    private static int enPassantSquare(Board b, int sq, String fen) {
+        boolean white = b.whiteToMove();
+        int pawn = white ? sq + 8 : sq - 8;
+        int origin = white ? sq - 8 : sq + 8;
+        if ((sq >>> 3) != (white ? 2 : 5)
+                || (b.pieces(!white, Piece.PAWN) >>> pawn & 1) == 0
+                || b.get(sq) != null || b.get(origin) != null) {
+            throw new IllegalArgumentException("Casa de en passant impossível: " + fen);
+        }
+        return sq;
+    }
+
+    /**
+     * A FEN não diz quais peças já andaram; as peças usam isso (avanço duplo,
+     * roque). Peão fora da fileira inicial andou; rei e torre só "não
+     * andaram" se ainda houver direito de roque que dependa deles.
+     */
+    static void setMovedFlags(Board b) {
+        int rights = b.castlingRights();
+        for (long bb = b.occupied(); bb != 0; bb &= bb - 1) {
+            int sq = Long.numberOfTrailingZeros(bb);
+            Piece p = b.get(sq);
+            boolean white = p.isWhite();
+            int home = white ? 7 : 0;
+            boolean moved = switch (p.getType()) {
+                case Piece.PAWN -> (sq >>> 3) != (white ? 6 : 1);
+                case Piece.KING -> sq != Board.square(home, 4)
+                        || (rights & (white ? Board.CASTLE_WK | Board.CASTLE_WQ : Board.CASTLE_BK | Board.CASTLE_BQ)) == 0;
+                case Piece.ROOK -> !(sq == Board.square(home, 7) && (rights & (white ? Board.CASTLE_WK : Board.CASTLE_BK)) != 0)
+                        && !(sq == Board.square(home, 0) && (rights & (white ? Board.CASTLE_WQ : Board.CASTLE_BQ)) != 0);
+                default -> false;
+            };
+            p.setMoved(moved);
+        }
+    }
+}
@@ -0,0 +1,255 @@
+// ========================= src/model/board/MoveGenerator.java =========================
+package model.board;
+
+import model.pieces.Piece;
+
+/**
+ * Geração de lances sem alocação: escreve lances codificados (ver {@link Moves})
+ * num {@link MoveList} do chamador e trabalha só com índices de casa 0..63.
+ */
+public final class MoveGenerator {
+    private static final long RANK_8 = 0xFFL;          // linha 0
+    private static final long RANK_1 = 0xFFL << 56;    // linha 7
+    private static final long RANK_3 = 0xFFL << 40;    // destino do 1º passo do peão branco
+    private static final long RANK_6 = 0xFFL << 16;    // destino do 1º passo do peão preto
+
+    // Roque: casas que precisam estar vazias / não atacadas, por direito (WK, WQ, BK, BQ)
+    private static final int[] CASTLE_RIGHT = {Board.CASTLE_WK, Board.CASTLE_WQ, Board.CASTLE_BK, Board.CASTLE_BQ};
+    private static final int[] CASTLE_KING_FROM = {60, 60, 4, 4};
+    private static final int[] CASTLE_KING_TO = {62, 58, 6, 2};
+    private static final int[] CASTLE_ROOK = {63, 56, 7, 0};
+    private static final long[] CASTLE_EMPTY = {
+        bits(61, 62), bits(57, 58, 59), bits(5, 6), bits(1, 2, 3)
+    };
+    private static final long[] CASTLE_SAFE = { // por onde o rei passa (a origem já é testada pelo xeque)
+        bits(61, 62), bits(58, 59), bits(5, 6), bits(2, 3)
+    };
+
+    private MoveGenerator() { }
+
+    /**
+     * Pseudo-lances do lado a jogar (não filtram xeque ao próprio rei),
+     * com as mesmas regras de Piece.getPossibleMoves, as 4 promoções, en
+     * passant e roque. Todos os alvos vêm das tabelas de {@link Attacks}.
+     * O roque, como de costume, já sai validado (rei fora de xeque e sem
+     * passar por casa atacada), pois isso não se descobre testando só o destino.
+     */
+    public static void generatePseudoLegal(Board b, MoveList out) {
+        boolean white = b.whiteToMove();
+        long us = b.occupancy(white);
+        long them = b.occupancy(!white);
+        long occ = us | them;
+
+        pawnMoves(b, white, them, occ, ~0L, 0L, 0, out);
+        pieceMoves(b, white, us, them, occ, ~0L, 0L, 0, out);
+        int ep = b.enPassantSquare();
+        if (ep >= 0) {
+            for (long bb = Attacks.pawn(!white, ep) & b.pieces(white, Piece.PAWN); bb != 0; bb &= bb - 1) {
+                out.add(Moves.encode(Long.numberOfTrailingZeros(bb), ep, Moves.EN_PASSANT));
+            }
+        }
+        for (long bb = b.pieces(white, Piece.KING); bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            addTargets(from, Attacks.king(from) & ~us, them, out);
+            if (!isAttacked(b, from, !white)) castles(b, white, occ, out);
+        }
+    }
+
+    /**
+     * Só os lances legais do lado a jogar, sem fazer/desfazer nenhum lance.
+     * Calcula uma vez por posição:
+     * <ul>
+     *   <li>as peças que dão xeque (com dois, só o rei pode mexer);</li>
+     *   <li>com um xeque, a máscara de bloqueio: a peça atacante e as casas entre ela e o rei;</li>
+     *   <li>as peças cravadas, que só andam sobre a linha rei–atacante;</li>
+     *   <li>para o rei, as casas atacadas com o próprio rei fora da ocupação
+     *       (senão ele "se esconderia" atrás de si mesmo ao fugir de uma peça de longo alcance).</li>
+     * </ul>
+     * Produz exatamente os lances de generatePseudoLegal que não deixam o rei em xeque.
+     */
+    public static void generateLegal(Board b, MoveList out) {
+        out.clear();
+        boolean white = b.whiteToMove();
+        int king = b.kingSquare(white);
+        if (king < 0) { // posição sem rei (só em testes/edição): não há o que proteger
+            generatePseudoLegal(b, out);
+            return;
+        }
+        long us = b.occupancy(white);
+        long them = b.occupancy(!white);
+        long occ = us | them;
+
+        long occNoKing = occ & ~(1L << king);
+        for (long bb = Attacks.king(king) & ~us; bb != 0; bb &= bb - 1) {
+            int to = Long.numberOfTrailingZeros(bb);
+            if (attackersTo(b, to, !white, occNoKing) == 0) {
+                out.add(Moves.encode(king, to, (them & (1L << to)) != 0 ? Moves.CAPTURE : Moves.QUIET));
+            }
+        }
+
+        long checkers = attackersTo(b, king, !white, occ);
+        if (Long.bitCount(checkers) > 1) return; // xeque duplo: só o rei
+
+        long checkMask = ~0L;
+        if (checkers != 0) {
+            int checker = Long.numberOfTrailingZeros(checkers);
+            checkMask = checkers | Attacks.between(king, checker);
+        }
+        long pinned = pinned(b, white, king, us, occ);
+
+        pawnMoves(b, white, them, occ, checkMask, pinned, king, out);
+        pieceMoves(b, white, us, them, occ, checkMask, pinned, king, out);
+        if (checkers == 0) castles(b, white, occ, out);
+
+        int ep = b.enPassantSquare();
+        if (ep >= 0) {
+            // En passant tira duas peças da mesma fileira do rei de uma vez: a
+            // cravada "horizontal" escapa das máscaras, então testa a ocupação final
+            int capSq = ep + (white ? 8 : -8);
+            for (long bb = Attacks.pawn(!white, ep) & b.pieces(white, Piece.PAWN); bb != 0; bb &= bb - 1) {
+                int from = Long.numberOfTrailingZeros(bb);
+                long after = (occ & ~(1L << from) & ~(1L << capSq)) | (1L << ep);
+                if ((attackersTo(b, king, !white, after) & ~(1L << capSq)) == 0) {
+                    out.add(Moves.encode(from, ep, Moves.EN_PASSANT));
+                }
+            }
+        }
+    }
+
+    // Roques do lado white; supõe o rei fora de xeque
+    private static void castles(Board b, boolean white, long occ, MoveList out) {
+        int rights = b.castlingRights();
+        for (int i = white ? 0 : 2, end = i + 2; i < end; i++) {
+            if ((rights & CASTLE_RIGHT[i]) == 0 || (occ & CASTLE_EMPTY[i]) != 0) continue;
+            if ((b.pieces(white, Piece.KING) & (1L << CASTLE_KING_FROM[i])) == 0
+                    || (b.pieces(white, Piece.ROOK) & (1L << CASTLE_ROOK[i])) == 0) continue;
+            boolean safe = true;
+            for (long bb = CASTLE_SAFE[i]; bb != 0 && safe; bb &= bb - 1) {
+                safe = attackersTo(b, Long.numberOfTrailingZeros(bb), !white, occ) == 0;
+            }
+            if (safe) {
+                out.add(Moves.encode(CASTLE_KING_FROM[i], CASTLE_KING_TO[i],
+                        (i & 1) == 0 ? Moves.CASTLE_KING : Moves.CASTLE_QUEEN));
+            }
+        }
+    }
+
+    private static long bits(int... squares) {
+        long bb = 0;
+        for (int sq : squares) bb |= 1L << sq;
+        return bb;
+    }
+
+    /** O lado a jogar está em xeque? */
+    public static boolean inCheck(Board b) {
+        boolean white = b.whiteToMove();
+        return isAttacked(b, b.kingSquare(white), !white);
+    }
+
+    /** A casa sq é atacada por alguma peça da cor byWhite? (consulta reversa nas tabelas) */
+    public static boolean isAttacked(Board b, int sq, boolean byWhite) {
+        if (sq < 0) return false;
+        return attackersTo(b, sq, byWhite, b.occupied()) != 0;
+    }
+
+    /** Peças da cor byWhite que atacam sq, dada a ocupação occ. */
+    public static long attackersTo(Board b, int sq, boolean byWhite, long occ) {
+        long queens = b.pieces(byWhite, Piece.QUEEN);
+        // Um peão branco ataca sq se estiver onde um peão preto em sq atacaria
+        return (Attacks.pawn(!byWhite, sq) & b.pieces(byWhite, Piece.PAWN))
+                | (Attacks.knight(sq) & b.pieces(byWhite, Piece.KNIGHT))
+                | (Attacks.king(sq) & b.pieces(byWhite, Piece.KING))
+                | (Attacks.bishop(sq, occ) & (b.pieces(byWhite, Piece.BISHOP) | queens))
+                | (Attacks.rook(sq, occ) & (b.pieces(byWhite, Piece.ROOK) | queens));
+    }
+
+    /**
+     * Peças próprias cravadas no rei: para cada peça inimiga de longo alcance
+     * alinhada com o rei (em tabuleiro vazio), se entre as duas houver
+     * exatamente uma peça e ela for nossa, essa peça está cravada.
+     */
+    private static long pinned(Board b, boolean white, int king, long us, long occ) {
+        long queens = b.pieces(!white, Piece.QUEEN);
+        long snipers = (Attacks.rook(king, 0) & (b.pieces(!white, Piece.ROOK) | queens))
+                | (Attacks.bishop(king, 0) & (b.pieces(!white, Piece.BISHOP) | queens));
+        long pinned = 0;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = Attacks.between(king, Long.numberOfTrailingZeros(snipers)) & occ;
+            if (blockers != 0 && (blockers & (blockers - 1)) == 0) pinned |= blockers & us;
+        }
+        return pinned;
+    }
+
+    // Cavalos, bispos, torres e damas; alvos restritos à máscara de xeque e, se cravados, à linha do rei
+    private static void pieceMoves(Board b, boolean white, long us, long them, long occ,
+                                   long checkMask, long pinned, int king, MoveList out) {
+        long allowed = ~us & checkMask;
+        // Cavalo cravado nunca se mexe: não há casa de cavalo na mesma linha do rei
+        for (long bb = b.pieces(white, Piece.KNIGHT) & ~pinned; bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            addTargets(from, Attacks.knight(from) & allowed, them, out);
+        }
+        for (long bb = b.pieces(white, Piece.BISHOP); bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            addTargets(from, Attacks.bishop(from, occ) & allowed & pinRay(pinned, king, from), them, out);
+        }
+        for (long bb = b.pieces(white, Piece.ROOK); bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            addTargets(from, Attacks.rook(from, occ) & allowed & pinRay(pinned, king, from), them, out);
+        }
+        for (long bb = b.pieces(white, Piece.QUEEN); bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            addTargets(from, Attacks.queen(from, occ) & allowed & pinRay(pinned, king, from), them, out);
+        }
+    }
+
+    // Casas permitidas para a peça em from: tudo, ou só a linha do rei se estiver cravada
+    private static long pinRay(long pinned, int king, int from) {
+        return (pinned & (1L << from)) != 0 ? Attacks.line(king, from) : ~0L;
+    }
+
+    private static void pawnMoves(Board b, boolean white, long them, long occ,
+                                  long checkMask, long pinned, int king, MoveList out) {
+        long pawns = b.pieces(white, Piece.PAWN);
+        long empty = ~occ;
+        // Avanços em bloco: brancas sobem (>>> 8), pretas descem (<< 8)
+        long single = (white ? pawns >>> 8 : pawns << 8) & empty;
+        long dbl = (white ? (single & RANK_3) >>> 8 : (single & RANK_6) << 8) & empty;
+        int push = white ? 8 : -8; // origem = destino + push
+        long promoRank = white ? RANK_8 : RANK_1;
+
+        for (long bb = single & checkMask; bb != 0; bb &= bb - 1) {
+            int to = Long.numberOfTrailingZeros(bb);
+            if ((pinRay(pinned, king, to + push) & (1L << to)) == 0) continue;
+            addPawnMove(to + push, to, (promoRank & (1L << to)) != 0, false, out);
+        }
+        for (long bb = dbl & checkMask; bb != 0; bb &= bb - 1) {
+            int to = Long.numberOfTrailingZeros(bb);
+            if ((pinRay(pinned, king, to + 2 * push) & (1L << to)) == 0) continue;
+            out.add(Moves.encode(to + 2 * push, to, Moves.DOUBLE_PUSH));
+        }
+        for (long bb = pawns; bb != 0; bb &= bb - 1) {
+            int from = Long.numberOfTrailingZeros(bb);
+            long caps = Attacks.pawn(white, from) & them & checkMask & pinRay(pinned, king, from);
+            for (; caps != 0; caps &= caps - 1) {
+                int to = Long.numberOfTrailingZeros(caps);
+                addPawnMove(from, to, (promoRank & (1L << to)) != 0, true, out);
+            }
+        }
+    }
+
+    private static void addPawnMove(int from, int to, boolean promo, boolean capture, MoveList out) {
+        if (promo) {
+            for (int t = Piece.QUEEN; t >= Piece.KNIGHT; t--) out.add(Moves.promotion(from, to, t, capture));
+        } else {
+            out.add(Moves.encode(from, to, capture ? Moves.CAPTURE : Moves.QUIET));
+        }
+    }
+
+    private static void addTargets(int from, long targets, long them, MoveList out) {
+        for (long bb = targets; bb != 0; bb &= bb - 1) {
+            int to = Long.numberOfTrailingZeros(bb);
+            out.add(Moves.encode(from, to, (them & (1L << to)) != 0 ? Moves.CAPTURE : Moves.QUIET));
+        }
+    }
+}
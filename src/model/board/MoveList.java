@@ -0,0 +1,47 @@
+// ========================= src/model/board/MoveList.java =========================
+package model.board;
+
+/**
+ * Buffer reutilizável de lances codificados (ver {@link Moves}).
+ * A busca mantém um por ply e só chama clear() entre usos.
+ */
+public final class MoveList {
+    /** Nenhuma posição legal passa de 218 lances. */
+    public static final int CAPACITY = 256;
+
+    private final int[] moves = new int[CAPACITY];
+    private final int[] scores = new int[CAPACITY]; // chave de ordenação, preenchida pela busca
+    private int size;
+
+    public void clear() { size = 0; }
+    public int size() { return size; }
+    public boolean isEmpty() { return size == 0; }
+    public int get(int i) { return moves[i]; }
+    public void set(int i, int move) { moves[i] = move; }
+    public void add(int move) { moves[size++] = move; }
+
+    /** Mantém só os primeiros n lances (usado ao filtrar no lugar). */
+    public void truncate(int n) { size = n; }
+
+    public int score(int i) { return scores[i]; }
+    public void setScore(int i, int score) { scores[i] = score; }
+
+    /**
+     * Seleção incremental: traz para a posição i o lance de maior nota entre
+     * i e o fim e o devolve. Só ordena o que a busca chega a olhar.
+     */
+    public int pickBest(int i) {
+        int best = i;
+        for (int j = i + 1; j < size; j++) if (scores[j] > scores[best]) best = j;
+        if (best != i) {
+            int m = moves[i]; moves[i] = moves[best]; moves[best] = m;
+            int sc = scores[i]; scores[i] = scores[best]; scores[best] = sc;
+        }
+        return moves[i];
+    }
+
+    public boolean contains(int move) {
+        for (int i = 0; i < size; i++) if (moves[i] == move) return true;
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+// ========================= src/model/board/Moves.java =========================
+package model.board;
+
+import model.pieces.Piece;
+
+/**
+ * Codificação de lances em um int (caminho rápido da busca):
+ * bits 0-5 = origem, 6-11 = destino, 12-15 = flags.
+ * Flags: 0 quieto, 1 avanço duplo, 2 roque pequeno, 3 roque grande,
+ * 4 captura, 5 en passant, 8-11 promoção (N,B,R,Q), 12-15 promoção com captura.
+ */
+public final class Moves {
+    public static final int NONE = 0;
+
+    public static final int QUIET = 0;
+    public static final int DOUBLE_PUSH = 1;
+    public static final int CASTLE_KING = 2;
+    public static final int CASTLE_QUEEN = 3;
+    public static final int CAPTURE = 4;
+    public static final int EN_PASSANT = 5;
+    public static final int PROMOTION = 8;
+
+    private Moves() { }
+
+    public static int encode(int from, int to, int flags) {
+        return from | (to << 6) | (flags << 12);
+    }
+
+    /** Lance de promoção para o tipo Piece.KNIGHT..Piece.QUEEN. */
+    public static int promotion(int from, int to, int type, boolean capture) {
+        return encode(from, to, PROMOTION | (capture ? CAPTURE : 0) | (type - Piece.KNIGHT));
+    }
+
+    public static int from(int move) { return move & 63; }
+    public static int to(int move) { return (move >>> 6) & 63; }
+    public static int flags(int move) { return (move >>> 12) & 15; }
+
+    public static boolean isCapture(int move) { return (flags(move) & CAPTURE) != 0; }
+    public static boolean isPromotion(int move) { return (flags(move) & PROMOTION) != 0; }
+    public static boolean isEnPassant(int move) { return flags(move) == EN_PASSANT; }
+    public static boolean isCastle(int move) { int f = flags(move); return f == CASTLE_KING || f == CASTLE_QUEEN; }
+
+    /** Tipo promovido (Piece.KNIGHT..Piece.QUEEN); só vale se isPromotion. */
+    public static int promotionType(int move) { return Piece.KNIGHT + (flags(move) & 3); }
+
+    /** Notação de coordenadas, ex.: "e2e4", "e7e8q". */
+    public static String toString(int move) {
+        String s = Square.of(from(move)).toString() + Square.of(to(move));
+        return isPromotion(move) ? s + "nbrq".charAt(promotionType(move) - Piece.KNIGHT) : s;
+    }
+}
@@ -0,0 +1,111 @@
+// ========================= src/model/board/PositionCodec.java =========================
+package model.board;
+
+import model.pieces.Piece;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Codificação binária de tamanho fixo de uma posição: 32 bytes = 4 longs,
+ * na ordem de bytes do ByteBuffer usado.
+ *
+ *   long 0: ocupação (bit = casa, a8 = bit 0)
+ *   long 1-2: 4 bits por peça, na ordem das casas ocupadas (até 32 peças):
+ *             tipo (Piece.PAWN..KING) + 8 se for preta
+ *   long 3: lado a jogar (bit 0) | roque << 1 | (en passant + 1) << 5
+ *           | meio-lances << 12 (10 bits) | número do lance << 22 (16 bits)
+ *
+ * As versões em lote passam por um long[] e usam as transferências em
+ * bloco de LongBuffer, sem um put/get por campo.
+ */
+public final class PositionCodec {
+    public static final int BYTES = 32;
+    private static final int LONGS = BYTES / Long.BYTES;
+
+    private PositionCodec() { }
+
+    /** Escreve a posição de b em dst (32 bytes a partir da posição atual, que avança). */
+    public static void encode(Board b, ByteBuffer dst) {
+        checkCount(b);
+        dst.putLong(b.occupied()).putLong(pieceCodes(b, 0)).putLong(pieceCodes(b, 16)).putLong(state(b));
+    }
+
+    /** Lê 32 bytes de src (a posição avança) e troca o conteúdo de into por essa posição. */
+    public static void decode(ByteBuffer src, Board into) {
+        long occ = src.getLong(), lo = src.getLong(), hi = src.getLong();
+        decode(occ, lo, hi, src.getLong(), into);
+    }
+
+    /** Codifica boards em sequência em dst, que avança boards.length * 32 bytes. */
+    public static void encodeAll(Board[] boards, ByteBuffer dst) {
+        long[] w = new long[boards.length * LONGS];
+        for (int i = 0; i < boards.length; i++) encode(boards[i], w, i * LONGS);
+        dst.asLongBuffer().put(w);
+        dst.position(dst.position() + w.length * Long.BYTES);
+    }
+
+    /** Decodifica into.length posições de src (que avança) nos tabuleiros de into, reaproveitando-os. */
+    public static void decodeAll(ByteBuffer src, Board[] into) {
+        long[] w = new long[into.length * LONGS];
+        src.asLongBuffer().get(w);
+        src.position(src.position() + w.length * Long.BYTES);
+        for (int i = 0; i < into.length; i++) decode(w, i * LONGS, into[i]);
+    }
+
+    /** Codifica b em out[offset..offset+3]. */
+    public static void encode(Board b, long[] out, int offset) {
+        checkCount(b);
+        out[offset] = b.occupied();
+        out[offset + 1] = pieceCodes(b, 0);
+        out[offset + 2] = pieceCodes(b, 16);
+        out[offset + 3] = state(b);
+    }
+
+    /** Troca o conteúdo de into pela posição em in[offset..offset+3]. */
+    public static void decode(long[] in, int offset, Board into) {
+        decode(in[offset], in[offset + 1], in[offset + 2], in[offset + 3], into);
+    }
+
+    private static void decode(long occ, long lo, long hi, long state, Board into) {
+        into.clear();
+        int n = 0;
+        for (long bb = occ; bb != 0; bb &= bb - 1, n++) {
+            int code = (int) ((n < 16 ? lo >>> (n * 4) : hi >>> ((n - 16) * 4)) & 15);
+            into.set(Square.of(Long.numberOfTrailingZeros(bb)), Piece.create(code & 7, into, (code & 8) == 0));
+        }
+        into.setWhiteToMove((state & 1) == 0);
+        into.setCastlingRights((int) (state >>> 1 & 15));
+        into.setEnPassantSquare((int) (state >>> 5 & 127) - 1);
+        into.setHalfmoveClock((int) (state >>> 12 & 1023));
+        into.setFullmoveNumber((int) (state >>> 22 & 0xFFFF));
+        Fen.setMovedFlags(into);
+    }
+
+    private static void checkCount(Board b) {
+        if (Long.bitCount(b.occupied()) > 32) throw new IllegalArgumentException("Mais de 32 peças no tabuleiro");
+    }
+
+    // Códigos de 4 bits das peças first..first+15 (na ordem das casas ocupadas), direto das
+    // máscaras por tipo: a ordem de uma peça é o número de casas ocupadas antes da sua
+    private static long pieceCodes(Board b, int first) {
+        long occ = b.occupied();
+        long codes = 0;
+        for (int c = 0; c < 12; c++) {
+            int type = c % 6;
+            long code = type | (c < 6 ? 0 : 8);
+            for (long bb = b.pieces(c < 6, type); bb != 0; bb &= bb - 1) {
+                int n = Long.bitCount(occ & (Long.lowestOneBit(bb) - 1)) - first;
+                if (n >= 0 && n < 16) codes |= code << (n * 4);
+            }
+        }
+        return codes;
+    }
+
+    private static long state(Board b) {
+        return (b.whiteToMove() ? 0 : 1)
+                | (long) b.castlingRights() << 1
+                | (long) (b.enPassantSquare() + 1) << 5
+                | (long) Math.min(b.halfmoveClock(), 1023) << 12
+                | (long) Math.min(b.fullmoveNumber(), 0xFFFF) << 22;
+    }
+}
@@ -0,0 +1,154 @@
+// ========================= src/model/board/San.java =========================
+package model.board;
+
+import model.pieces.Piece;
+
+/**
+ * Notação algébrica padrão (SAN: "Nf3", "exd5", "O-O", "e8=Q+"), nos dois
+ * sentidos. A leitura decompõe a string (peça, desambiguação, destino,
+ * promoção) e filtra os lances legais por esses campos, sem escrever o SAN
+ * de cada lance; aceita também as variações comuns: "0-0", sufixos +#!?,
+ * "e.p.", "x" omitido e promoção sem "=".
+ */
+public final class San {
+    private static final String PIECE_LETTERS = "PNBRQK";
+
+    private San() { }
+
+    /** SAN do lance legal move na posição atual de b, com + ou # no fim. */
+    public static String toSan(Board b, int move) {
+        MoveList legal = new MoveList();
+        MoveGenerator.generateLegal(b, legal);
+        return toSan(b, move, legal);
+    }
+
+    /**
+     * Lance legal de b escrito em san, ou Moves.NONE se nenhum bater (ou se
+     * mais de um bater: SAN ambíguo). O buffer legal é reaproveitado (evita
+     * alocar por lance em leituras longas).
+     */
+    public static int parse(Board b, String san, MoveList legal) {
+        String s = normalize(san);
+        int n = s.length();
+        if (n < 2) return Moves.NONE;
+        MoveGenerator.generateLegal(b, legal);
+        if (s.charAt(0) == 'O') {
+            int flag = s.equals("O-O") ? Moves.CASTLE_KING : s.equals("O-O-O") ? Moves.CASTLE_QUEEN : -1;
+            for (int i = 0; i < legal.size(); i++) {
+                if (Moves.flags(legal.get(i)) == flag) return legal.get(i);
+            }
+            return Moves.NONE;
+        }
+
+        int type = PIECE_LETTERS.indexOf(s.charAt(0));
+        int start = 1;
+        if (type <= Piece.PAWN) {
+            type = Piece.PAWN;
+            start = 0;
+        }
+        // Promoção no fim: "=Q" ou só "Q"
+        int promo = -1;
+        char last = s.charAt(n - 1);
+        if (type == Piece.PAWN && "NBRQ".indexOf(last) >= 0) {
+            promo = PIECE_LETTERS.indexOf(last);
+            n -= s.charAt(n - 2) == '=' ? 2 : 1;
+        }
+        if (n - start < 2) return Moves.NONE;
+        int to = square(s.charAt(n - 2), s.charAt(n - 1));
+        if (to < 0) return Moves.NONE;
+        // Entre a peça e o destino: coluna e/ou fileira de origem, "x" e "-" ignorados
+        int fromFile = -1, fromRank = -1;
+        for (int i = start; i < n - 2; i++) {
+            char c = s.charAt(i);
+            if (c >= 'a' && c <= 'h') fromFile = c - 'a';
+            else if (c >= '1' && c <= '8') fromRank = '8' - c;
+            else if (c != 'x' && c != ':' && c != '-') return Moves.NONE;
+        }
+        // Peão sem coluna de origem só anda reto
+        if (type == Piece.PAWN && fromFile < 0) fromFile = to & 7;
+
+        int found = Moves.NONE;
+        for (int i = 0; i < legal.size(); i++) {
+            int m = legal.get(i);
+            int from = Moves.from(m);
+            if (Moves.to(m) != to || b.get(from).getType() != type) continue;
+            if (fromFile >= 0 && (from & 7) != fromFile) continue;
+            if (fromRank >= 0 && (from >>> 3) != fromRank) continue;
+            if (Moves.isPromotion(m) && Moves.promotionType(m) != (promo < 0 ? Piece.QUEEN : promo)) continue;
+            if (found != Moves.NONE) return Moves.NONE; // ambíguo
+            found = m;
+        }
+        return found;
+    }
+
+    public static int parse(Board b, String san) {
+        return parse(b, san, new MoveList());
+    }
+
+    // legal = lances legais de b (para desambiguar)
+    private static String toSan(Board b, int move, MoveList legal) {
+        int from = Moves.from(move), to = Moves.to(move);
+        StringBuilder sb = new StringBuilder(8);
+        if (Moves.isCastle(move)) {
+            sb.append(Moves.flags(move) == Moves.CASTLE_KING ? "O-O" : "O-O-O");
+        } else {
+            int type = b.get(from).getType();
+            if (type == Piece.PAWN) {
+                if (Moves.isCapture(move)) sb.append(file(from)).append('x');
+            } else {
+                sb.append(PIECE_LETTERS.charAt(type));
+                appendDisambiguation(b, move, type, legal, sb);
+                if (Moves.isCapture(move)) sb.append('x');
+            }
+            sb.append(file(to)).append(rank(to));
+            if (Moves.isPromotion(move)) sb.append('=').append(PIECE_LETTERS.charAt(Moves.promotionType(move)));
+        }
+        b.makeMove(move);
+        if (MoveGenerator.inCheck(b)) {
+            MoveList replies = new MoveList();
+            MoveGenerator.generateLegal(b, replies);
+            sb.append(replies.isEmpty() ? '#' : '+');
+        }
+        b.unmakeMove();
+        return sb.toString();
+    }
+
+    // Outra peça do mesmo tipo pode ir à mesma casa: coluna, senão fileira, senão as duas
+    private static void appendDisambiguation(Board b, int move, int type, MoveList legal, StringBuilder sb) {
+        int from = Moves.from(move), to = Moves.to(move);
+        boolean ambiguous = false, sameFile = false, sameRank = false;
+        for (int i = 0; i < legal.size(); i++) {
+            int other = legal.get(i);
+            int of = Moves.from(other);
+            if (of == from || Moves.to(other) != to || b.get(of).getType() != type) continue;
+            ambiguous = true;
+            sameFile |= (of & 7) == (from & 7);
+            sameRank |= (of >>> 3) == (from >>> 3);
+        }
+        if (!ambiguous) return;
+        if (!sameFile) sb.append(file(from));
+        else if (!sameRank) sb.append(rank(from));
+        else sb.append(file(from)).append(rank(from));
+    }
+
+    private static String normalize(String san) {
+        String s = san.trim().replace("e.p.", "").replace('0', 'O');
+        int end = s.length();
+        while (end > 0 && "+#!?".indexOf(s.charAt(end - 1)) >= 0) end--;
+        return s.substring(0, end);
+    }
+
+    // "e4" -> casa, ou -1
+    private static int square(char file, char rank) {
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') return -1;
+        return ('8' - rank) * 8 + (file - 'a');
+    }
+
+    private static char file(int sq) {
+        return (char) ('a' + (sq & 7));
+    }
+
+    private static char rank(int sq) {
+        return (char) ('8' - (sq >>> 3));
+    }
+}
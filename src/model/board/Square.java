@@ -0,0 +1,35 @@
+// ========================= src/model/board/Square.java =========================
+package model.board;
+
+
+/**
+ * Casa imutável do tabuleiro. Existem exatamente 64 instâncias (flyweight),
+ * obtidas com Square.of; servem onde se espera um Position sem alocar nada.
+ */
+public final class Square extends Position {
+private static final Square[] ALL = new Square[64];
+static {
+for (int sq = 0; sq < 64; sq++) ALL[sq] = new Square(sq);
+}
+
+
+private final int index;
+
+
+private Square(int index) {
+super(index >>> 3, index & 7);
+this.index = index;
+}
+
+
+/** Casa de índice 0..63 (linha * 8 + coluna). */
+public static Square of(int index) { return ALL[index]; }
+public static Square of(int row, int column) { return ALL[(row << 3) | column]; }
+
+
+public int index() { return index; }
+
+
+@Override public void setRow(int row) { throw new UnsupportedOperationException("Square é imutável"); }
+@Override public void setColumn(int column) { throw new UnsupportedOperationException("Square é imutável"); }
+}
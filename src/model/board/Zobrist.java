@@ -0,0 +1,45 @@
+// ========================= src/model/board/Zobrist.java =========================
+package model.board;
+
+/**
+ * Números aleatórios de Zobrist: a chave de 64 bits de uma posição é o XOR
+ * das entradas de cada peça/casa, do lado a jogar, dos direitos de roque e
+ * da coluna de en passant. Sementes fixas, então as chaves são estáveis
+ * entre execuções (podem ser gravadas em arquivo).
+ */
+public final class Zobrist {
+    static final long[] PIECE_SQUARE = new long[12 * 64]; // [(cor * 6 + tipo) * 64 + casa]
+    static final long[] CASTLING = new long[16];
+    static final long[] EP_FILE = new long[8];
+    static final long BLACK_TO_MOVE;
+
+    private static long state = 0x2545F4914F6CDD1DL;
+
+    static {
+        for (int i = 0; i < PIECE_SQUARE.length; i++) PIECE_SQUARE[i] = next();
+        // Cada direito de roque tem um número; combinações são o XOR deles
+        long[] right = new long[4];
+        for (int i = 0; i < 4; i++) right[i] = next();
+        for (int mask = 0; mask < 16; mask++) {
+            long k = 0;
+            for (int i = 0; i < 4; i++) if ((mask & (1 << i)) != 0) k ^= right[i];
+            CASTLING[mask] = k;
+        }
+        for (int i = 0; i < 8; i++) EP_FILE[i] = next();
+        BLACK_TO_MOVE = next();
+    }
+
+    private Zobrist() { }
+
+    public static long pieceSquare(int colorType, int sq) {
+        return PIECE_SQUARE[(colorType << 6) | sq];
+    }
+
+    // SplitMix64 com semente fixa
+    private static long next() {
+        long z = state += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,24 +1,36 @@
-// ========================= src/model/pieces/King.java =========================
-package model.pieces;
-
-
-import model.board.*;
-import java.util.*;
-
-
-public class King extends Piece {
-public King(Board b, boolean w){ super(b,w); }
-@Override public String getSymbol(){ return "K"; }
-@Override public Piece copyFor(Board newBoard){ King k = new King(newBoard, isWhite); k.moved=this.moved; return k; }
-
-
-@Override public List<Position> getPossibleMoves(){
-List<Position> s = new ArrayList<>();
-for(int dr=-1; dr<=1; dr++) for(int dc=-1; dc<=1; dc++) if(dr!=0||dc!=0){
-int r=position.getRow()+dr, c=position.getColumn()+dc;
-addIfFreeOrEnemy(s, r, c);
-}
-// Roques tratados no controller.Game
-return s;
-}
+// ========================= src/model/pieces/King.java =========================
+package model.pieces;
+
+
+import model.board.*;
+import java.util.*;
+
+
+public class King extends Piece {
+public King(Board b, boolean w){ super(b,w); }
+@Override public String getSymbol(){ return "K"; } @Override public int getType(){ return KING; }
+@Override public Piece copyFor(Board newBoard){ King k = new King(newBoard, isWhite); k.moved=this.moved; return k; }
+
+
+@Override public List<Position> getPossibleMoves(){
+List<Position> s = targets(Attacks.king(square()));
+// Roque: direito ainda valendo, casas entre rei e torre vazias, rei fora de xeque e sem passar por casa atacada
+int row = position.getRow(), col = position.getColumn();
+int rights = board.castlingRights();
+if(col==4 && row==(isWhite ? 7 : 0) && !MoveGenerator.isAttacked(board, square(), !isWhite)){
+if((rights & (isWhite ? Board.CASTLE_WK : Board.CASTLE_BK))!=0 && ownRook(row,7) && empty(row,5) && empty(row,6)
+&& !attacked(row,5) && !attacked(row,6)) s.add(Square.of(row,6));
+if((rights & (isWhite ? Board.CASTLE_WQ : Board.CASTLE_BQ))!=0 && ownRook(row,0) && empty(row,1) && empty(row,2) && empty(row,3)
+&& !attacked(row,2) && !attacked(row,3)) s.add(Square.of(row,2));
+}
+return s;
+}
+
+
+// O roque não ataca nada: só as casas vizinhas
+@Override public List<Position> getAttacks(){ return targets(Attacks.king(square())); }
+
+
+private boolean ownRook(int r, int c){ Piece q = board.get(Board.square(r,c)); return q instanceof Rook && q.isWhite()==isWhite; }
+private boolean attacked(int r, int c){ return MoveGenerator.isAttacked(board, Board.square(r,c), !isWhite); }
 }
\ No newline at end of file
@@ -1,36 +1,34 @@
-// ========================= src/model/pieces/Pawn.java =========================
-package model.pieces;
-
-
-import model.board.*;
-import java.util.*;
-
-
-public class Pawn extends Piece {
-public Pawn(Board b, boolean w){ super(b,w);} @Override public String getSymbol(){ return "P"; }
-@Override public Piece copyFor(Board newBoard){ Pawn r=new Pawn(newBoard, isWhite); r.moved=this.moved; return r; }
-
-
-@Override public List<Position> getPossibleMoves(){
-List<Position> s = new ArrayList<>();
-int dir = isWhite ? -1 : 1;
-Position f1 = new Position(position.getRow()+dir, position.getColumn());
-if(f1.isValid() && board.get(f1)==null){ s.add(f1);
-Position f2 = new Position(position.getRow()+2*dir, position.getColumn());
-if(!moved && f2.isValid() && board.get(f2)==null) s.add(f2);
-}
-Position l = new Position(position.getRow()+dir, position.getColumn()-1);
-Position r = new Position(position.getRow()+dir, position.getColumn()+1);
-if(l.isValid() && board.get(l)!=null && board.get(l).isWhite()!=isWhite) s.add(l);
-if(r.isValid() && board.get(r)!=null && board.get(r).isWhite()!=isWhite) s.add(r);
-return s; // en passant será tratado no controller
-}
-
-
-@Override public List<Position> getAttacks(){
-List<Position> s = new ArrayList<>(); int dir = isWhite ? -1 : 1;
-Position l = new Position(position.getRow()+dir, position.getColumn()-1);
-Position r = new Position(position.getRow()+dir, position.getColumn()+1);
-if(l.isValid()) s.add(l); if(r.isValid()) s.add(r); return s;
-}
+// ========================= src/model/pieces/Pawn.java =========================
+package model.pieces;
+
+
+import model.board.*;
+import java.util.*;
+
+
+public class Pawn extends Piece {
+public Pawn(Board b, boolean w){ super(b,w);} @Override public String getSymbol(){ return "P"; } @Override public int getType(){ return PAWN; }
+@Override public Piece copyFor(Board newBoard){ Pawn r=new Pawn(newBoard, isWhite); r.moved=this.moved; return r; }
+
+
+@Override public List<Position> getPossibleMoves(){
+List<Position> s = new ArrayList<>();
+int dir = isWhite ? -1 : 1;
+int row = position.getRow(), col = position.getColumn();
+if(empty(row+dir, col)){ s.add(Square.of(row+dir, col));
+if(row==(isWhite ? 6 : 1) && empty(row+2*dir, col)) s.add(Square.of(row+2*dir, col)); // casa inicial = ainda não andou
+}
+if(enemy(row+dir, col-1)) s.add(Square.of(row+dir, col-1));
+if(enemy(row+dir, col+1)) s.add(Square.of(row+dir, col+1));
+int ep = board.enPassantSquare(); // casa "pulada" pelo último avanço duplo
+if(ep>=0 && (ep>>>3)==row+dir && Math.abs((ep&7)-col)==1) s.add(Square.of(ep));
+return s;
+}
+
+
+@Override public List<Position> getAttacks(){
+List<Position> s = new ArrayList<>(2); int dir = isWhite ? -1 : 1;
+int row = position.getRow()+dir, col = position.getColumn();
+if(inside(row, col-1)) s.add(Square.of(row, col-1)); if(inside(row, col+1)) s.add(Square.of(row, col+1)); return s;
+}
 }
\ No newline at end of file
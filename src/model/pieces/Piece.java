@@ -1,52 +1,78 @@
-// ========================= src/model/pieces/Piece.java =========================
-package model.pieces;
-
-
-import model.board.Board;
-import model.board.Position;
-import java.util.*;
-
-
-public abstract class Piece {
-protected Position position;
-protected final boolean isWhite;
-protected final Board board;
-protected boolean moved = false;
-
-
-public Piece(Board board, boolean isWhite) {
-this.board = board; this.isWhite = isWhite;
-}
-
-
-public boolean isWhite(){ return isWhite; }
-public Position getPosition(){ return position; }
-public void setPosition(Position position){ this.position = position; }
-public boolean hasMoved(){ return moved; }
-public void setMoved(boolean moved){ this.moved = moved; }
-
-
-// Pseudo-movimentos (não filtram xeque ao próprio rei)
-public abstract List<Position> getPossibleMoves();
-// Casas atacadas (para peão difere dos possíveis)
-public List<Position> getAttacks(){ return getPossibleMoves(); }
-
-
-public abstract String getSymbol(); // K,Q,R,B,N,P
-
-
-// Fábrica de cópia para outro board
-public abstract Piece copyFor(Board newBoard);
-
-
-protected boolean empty(int r, int c){ return new Position(r,c).isValid() && board.get(new Position(r,c))==null; }
-protected boolean enemy(int r, int c){
-Position p = new Position(r,c);
-if(!p.isValid()) return false; Piece q = board.get(p);
-return q!=null && q.isWhite()!=this.isWhite;
-}
-protected void addIfFreeOrEnemy(List<Position> list, int r, int c){
-Position p = new Position(r,c); if(!p.isValid()) return;
-var q = board.get(p); if(q==null || q.isWhite()!=this.isWhite) list.add(p);
-}
+// ========================= src/model/pieces/Piece.java =========================
+package model.pieces;
+
+
+import model.board.Board;
+import model.board.Position;
+import model.board.Square;
+import java.util.*;
+
+
+public abstract class Piece {
+// Índices de tipo usados pelos bitboards do Board (ordem = valor crescente)
+public static final int PAWN = 0, KNIGHT = 1, BISHOP = 2, ROOK = 3, QUEEN = 4, KING = 5;
+
+
+protected Position position;
+protected final boolean isWhite;
+protected final Board board;
+protected boolean moved = false;
+
+
+public Piece(Board board, boolean isWhite) {
+this.board = board; this.isWhite = isWhite;
+}
+
+
+public boolean isWhite(){ return isWhite; }
+public Position getPosition(){ return position; }
+public void setPosition(Position position){ this.position = position; }
+public boolean hasMoved(){ return moved; }
+public void setMoved(boolean moved){ this.moved = moved; }
+
+
+// Pseudo-movimentos (não filtram xeque ao próprio rei)
+public abstract List<Position> getPossibleMoves();
+// Casas atacadas (para peão difere dos possíveis)
+public List<Position> getAttacks(){ return getPossibleMoves(); }
+
+
+public abstract String getSymbol(); // K,Q,R,B,N,P
+public abstract int getType(); // PAWN..KING, sem passar por String
+
+
+// Fábrica de cópia para outro board
+public abstract Piece copyFor(Board newBoard);
+
+
+// Fábrica por tipo (usada na promoção feita pelo Board)
+public static Piece create(int type, Board board, boolean white){
+return switch(type){
+case PAWN -> new Pawn(board, white);
+case KNIGHT -> new Knight(board, white);
+case BISHOP -> new Bishop(board, white);
+case ROOK -> new Rook(board, white);
+case QUEEN -> new Queen(board, white);
+default -> new King(board, white);
+};
+}
+
+
+protected boolean empty(int r, int c){ return inside(r,c) && board.get(Board.square(r,c))==null; }
+protected boolean enemy(int r, int c){
+if(!inside(r,c)) return false; Piece q = board.get(Board.square(r,c));
+return q!=null && q.isWhite()!=this.isWhite;
+}
+protected void addIfFreeOrEnemy(List<Position> list, int r, int c){
+if(!inside(r,c)) return;
+var q = board.get(Board.square(r,c)); if(q==null || q.isWhite()!=this.isWhite) list.add(Square.of(r,c));
+}
+protected static boolean inside(int r, int c){ return r>=0 && r<8 && c>=0 && c<8; }
+// Casas da máscara de ataques (ver model.board.Attacks) que não têm peça própria
+protected List<Position> targets(long attacks){
+List<Position> list = new ArrayList<>(Long.bitCount(attacks));
+for(long bb = attacks & ~board.occupancy(isWhite); bb!=0; bb &= bb-1) list.add(Square.of(Long.numberOfTrailingZeros(bb)));
+return list;
+}
+protected int square(){ return Board.square(position); }
 }
\ No newline at end of file
@@ -1,409 +1,636 @@
-// ========================= src/view/ChessGUI.java (COM DESTAQUE DE XEQUE) =========================
-package view;
-
-import controller.AIPlayer;
-import controller.Game;
-import model.board.Move;
-import model.board.Position;
-import model.pieces.King;
-import model.pieces.Pawn;
-import model.pieces.Piece;
-
-import javax.swing.*;
-import javax.swing.border.Border;
-import java.awt.*;
-import controller.AIDifficulty;
-import java.awt.event.ComponentAdapter;
-import java.awt.event.ComponentEvent;
-import java.util.ArrayList;
-import java.util.List;
-
-public class ChessGUI extends JFrame {
-
-    private static final Color COR_CASA_CLARA = new Color(240, 217, 181);
-    private static final Color COR_CASA_ESCURA = new Color(181, 136, 99);
-    private static final Color COR_DESTAQUE_SELECIONADA = new Color(30, 144, 255, 200);
-    private static final Color COR_DESTAQUE_LEGAL = new Color(0, 128, 0, 150);
-    private static final Color COR_DESTAQUE_ULTIMA = new Color(255, 255, 0, 100);
-    // NOVO: Cor para o destaque de xeque
-    private static final Color COR_DESTAQUE_XEQUE = new Color(255, 0, 0, 120); // Vermelho translúcido
-    private static final Font FONTE_HISTORICO = new Font(Font.MONOSPACED, Font.PLAIN, 14);
-
-    private static final Border BORDA_SELECIONADA = BorderFactory.createLineBorder(COR_DESTAQUE_SELECIONADA, 4);
-    private static final Border BORDA_LEGAL = BorderFactory.createLineBorder(COR_DESTAQUE_LEGAL, 3);
-    private static final Border BORDA_ULTIMA_JOGADA = BorderFactory.createLineBorder(COR_DESTAQUE_ULTIMA, 3);
-    // NOVO: Borda para o destaque de xeque
-    private static final Border BORDA_XEQUE = BorderFactory.createLineBorder(COR_DESTAQUE_XEQUE, 4);
-
-    private final Game game;
-    private final AIPlayer aiPlayer;
-    private final GameMode gameMode;
-    private final JPanel boardPanel;
-    private final JButton[][] squares = new JButton[8][8];
-    private final JLabel statusLabel;
-    private final JTextArea historyTextArea;
-
-    private Position selectedPosition = null;
-    private List<Position> legalMovesForSelected = new ArrayList<>();
-    private boolean gameOverDialogShown = false;
-
-    public ChessGUI(GameMode mode, AIDifficulty difficulty) {
-        // ... (o construtor continua exatamente igual ao da versão anterior)
-        super("ChessGame");
-        this.game = new Game();
-        this.gameMode = mode;
-
-        if (this.gameMode == GameMode.JOGADOR_vs_IA) {
-            this.aiPlayer = new AIPlayer(difficulty);
-            setTitle("ChessGame - Jogador vs IA (" + difficulty + ")");
-        } else {
-            this.aiPlayer = null;
-            setTitle("ChessGame - Jogador vs Jogador");
-        }
-
-        setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
-        setLayout(new BorderLayout(10, 10));
-
-        boardPanel = new JPanel(new GridLayout(8, 8));
-        initializeBoardButtons();
-        
-        this.historyTextArea = new JTextArea(10, 20);
-        
-        JPanel rightPanel = createRightPanel();
-
-        statusLabel = new JLabel("Vez das Brancas");
-        statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
-        statusLabel.setFont(statusLabel.getFont().deriveFont(Font.BOLD));
-
-        add(boardPanel, BorderLayout.CENTER);
-        add(statusLabel, BorderLayout.SOUTH);
-        add(rightPanel, BorderLayout.EAST);
-        
-        boardPanel.addComponentListener(new ComponentAdapter() {
-            @Override
-            public void componentResized(ComponentEvent e) {
-                refresh();
-            }
-        });
-
-        setMinimumSize(new Dimension(800, 600));
-        setLocationRelativeTo(null);
-        refresh();
-    }
-    
-    // ... (métodos initializeBoardButtons, createRightPanel, handleSquareClick, etc. continuam iguais)
-    
-    // ALTERADO: Apenas a chamada para o novo método de destaque do rei
-    private void updateBoardAppearance() {
-        Move lastMove = game.getLastMove();
-
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                boolean isLight = (r + c) % 2 == 0;
-                squares[r][c].setBackground(isLight ? COR_CASA_CLARA : COR_CASA_ESCURA);
-                squares[r][c].setBorder(null);
-
-                if (lastMove != null && (new Position(r, c).equals(lastMove.getFrom()) || new Position(r, c).equals(lastMove.getTo()))) {
-                    squares[r][c].setBorder(BORDA_ULTIMA_JOGADA);
-                }
-            }
-        }
-        
-        if (selectedPosition != null) {
-            squares[selectedPosition.getRow()][selectedPosition.getColumn()].setBorder(BORDA_SELECIONADA);
-            for (Position pos : legalMovesForSelected) {
-                squares[pos.getRow()][pos.getColumn()].setBorder(BORDA_LEGAL);
-            }
-        }
-
-        // NOVO: Chama o método para destacar o rei em xeque
-        highlightKingInCheck();
-    }
-
-    // NOVO: Lógica para destacar o rei
-    private void highlightKingInCheck() {
-        if (game.inCheck(game.whiteToMove())) {
-            for (int r = 0; r < 8; r++) {
-                for (int c = 0; c < 8; c++) {
-                    Piece p = game.board().get(new Position(r, c));
-                    if (p instanceof King && p.isWhite() == game.whiteToMove()) {
-                        squares[r][c].setBorder(BORDA_XEQUE);
-                        return; // Encontrou o rei, pode sair
-                    }
-                }
-            }
-        }
-    }
-    
-    // ALTERADO: Adiciona a palavra "Xeque!" ao status
-    // Dentro de src/view/ChessGUI.java
-
-// ALTERADO: Adiciona a lógica para mudar a cor do texto em caso de xeque
-private void updateSidePanel() {
-    String statusText;
-    // NOVO: Define a cor padrão do texto
-    statusLabel.setForeground(Color.BLACK); 
-
-    if (game.isGameOver()) {
-        statusText = "XEQUE-MATE! Vitória das " + game.getWinner() + ".";
-        // NOVO: Deixa o texto de vitória em uma cor destacada
-        statusLabel.setForeground(new Color(0, 128, 0)); // Verde escuro
-    } else {
-        String side = game.whiteToMove() ? "Brancas" : "Pretas";
-        statusText = "Vez: " + side;
-        if (game.inCheck(game.whiteToMove())) {
-            statusText += " (Xeque!)";
-            // NOVO: Muda a cor do texto para vermelho
-            statusLabel.setForeground(Color.RED); 
-        }
-    }
-    statusLabel.setText(statusText);
-
-    // O código para atualizar o histórico continua o mesmo
-    StringBuilder sb = new StringBuilder();
-    List<String> hist = game.history();
-    for (int i = 0; i < hist.size(); i++) {
-        if (i % 2 == 0) {
-            sb.append((i / 2) + 1).append(". ");
-        }
-        sb.append(hist.get(i)).append(" ");
-        if (i % 2 == 1) {
-            sb.append("\n");
-        }
-    }
-    historyTextArea.setText(sb.toString());
-    historyTextArea.setCaretPosition(historyTextArea.getDocument().getLength());
-}
-
-    // ... (O restante da classe ChessGUI.java continua exatamente igual)
-    private void initializeBoardButtons() {
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                final int finalR = r;
-                final int finalC = c;
-                JButton button = new JButton();
-                button.setMargin(new Insets(0, 0, 0, 0));
-                button.setFocusPainted(false);
-                button.addActionListener(_ -> handleSquareClick(new Position(finalR, finalC)));
-                squares[r][c] = button;
-                boardPanel.add(button);
-            }
-        }
-    }
-
-    private JPanel createRightPanel() {
-        historyTextArea.setEditable(false);
-        historyTextArea.setFont(FONTE_HISTORICO);
-        JScrollPane historyScroll = new JScrollPane(historyTextArea);
-        historyScroll.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
-
-        JPanel rightPanel = new JPanel(new BorderLayout(0, 10));
-        rightPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 10));
-        
-        JLabel historyLabel = new JLabel("Histórico de Lances:");
-        historyLabel.setFont(historyLabel.getFont().deriveFont(Font.BOLD));
-        historyLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 5, 0));
-
-        rightPanel.add(historyLabel, BorderLayout.NORTH);
-        rightPanel.add(historyScroll, BorderLayout.CENTER);
-        return rightPanel;
-    }
-
-    private void handleSquareClick(Position clickedPos) {
-        if (game.isGameOver()) return;
-
-        Piece clickedPiece = game.board().get(clickedPos);
-
-        if (selectedPosition == null) {
-            if (clickedPiece != null && clickedPiece.isWhite() == game.whiteToMove()) {
-                selectedPosition = clickedPos;
-                legalMovesForSelected = game.legalMovesFrom(selectedPosition);
-            }
-        }
-        else {
-            if (legalMovesForSelected.contains(clickedPos)) {
-                Character promo = null;
-                Piece movingPiece = game.board().get(selectedPosition);
-                if (movingPiece instanceof Pawn && game.isPromotion(selectedPosition, clickedPos)) {
-                    promo = askForPromotionPiece();
-                }
-                game.move(selectedPosition, clickedPos, promo);
-                clearSelection();
-                
-                if (!game.isGameOver() && gameMode == GameMode.JOGADOR_vs_IA && !game.whiteToMove()) {
-                    makeAIMove();
-                }
-            } 
-            else if (clickedPiece != null && clickedPiece.isWhite() == game.whiteToMove()) {
-                selectedPosition = clickedPos;
-                legalMovesForSelected = game.legalMovesFrom(selectedPosition);
-            } 
-            else {
-                clearSelection();
-            }
-        }
-        refresh();
-    }
-    
-    private void clearSelection() {
-        selectedPosition = null;
-        legalMovesForSelected.clear();
-    }
-
-    private void makeAIMove() {
-        setBoardEnabled(false);
-        statusLabel.setText("Vez das Pretas (IA pensando...)");
-
-        SwingWorker<Position[], Void> worker = new SwingWorker<>() {
-            @Override
-            protected Position[] doInBackground() {
-                return aiPlayer.findBestMove(game);
-            }
-
-            @Override
-            protected void done() {
-                try {
-                    Position[] bestMove = get();
-                    if (bestMove != null && bestMove[0] != null) {
-                        game.move(bestMove[0], bestMove[1], null);
-                    }
-                } catch (Exception e) {
-                    e.printStackTrace();
-                } finally {
-                    setBoardEnabled(true);
-                    refresh();
-                }
-            }
-        };
-        worker.execute();
-    }
-    
-    private void setBoardEnabled(boolean enabled) {
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                squares[r][c].setEnabled(enabled);
-            }
-        }
-    }
-    
-    private Character askForPromotionPiece() {
-        String[] opts = {"Rainha", "Torre", "Bispo", "Cavalo"};
-        int choice = JOptionPane.showOptionDialog(
-                this, "Escolha a peça para promoção:", "Promoção de Peão",
-                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, opts, opts[0]);
-        return switch (choice) {
-            case 1 -> 'R';
-            case 2 -> 'B';
-            case 3 -> 'N';
-            default -> 'Q';
-        };
-    }
-
-    private void refresh() {
-        updateBoardAppearance();
-        updatePieceIcons();
-        updateSidePanel();
-        
-        if (game.isGameOver() && !gameOverDialogShown) {
-            gameOverDialogShown = true;
-            showGameOverDialog();
-        }
-    }
-
-    private void updatePieceIcons() {
-        int iconSize = computeSquareIconSize();
-        for (int r = 0; r < 8; r++) {
-            for (int c = 0; c < 8; c++) {
-                Piece p = game.board().get(new Position(r, c));
-                JButton button = squares[r][c];
-                if (p != null) {
-                    ImageIcon icon = ImageUtil.getPieceIcon(p.isWhite(), p.getSymbol().charAt(0), iconSize);
-                    button.setIcon(icon);
-                } else {
-                    button.setIcon(null);
-                }
-            }
-        }
-    }
-
-    private void showGameOverDialog() {
-        String winner = game.getWinner();
-        String message = "XEQUE-MATE!\nO jogador de peças " + winner + " venceu.";
-        String[] options = {"Jogar Novamente", "Sair"};
-
-        int choice = JOptionPane.showOptionDialog(
-            this, message, "Vitória!",
-            JOptionPane.YES_NO_OPTION, JOptionPane.INFORMATION_MESSAGE,
-            null, options, options[0]
-        );
-
-        if (choice == JOptionPane.YES_OPTION) {
-            resetGame();
-        } else {
-            System.exit(0);
-        }
-    }
-
-    private void resetGame() {
-        game.reset();
-        clearSelection();
-        gameOverDialogShown = false;
-        refresh();
-    }
-
-    private int computeSquareIconSize() {
-        int w = boardPanel.getWidth() / 8;
-        int h = boardPanel.getHeight() / 8;
-        int side = Math.min(w, h);
-        return Math.max(24, side - 8);
-    }
-
-    public static void main(String[] args) {
-        try {
-            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
-        } catch (Exception e) {
-            e.printStackTrace();
-        }
-
-        SwingUtilities.invokeLater(() -> {
-            String[] options = {"Jogador vs Jogador", "Jogador vs IA"};
-            int choice = JOptionPane.showOptionDialog(
-                    null,
-                    "Escolha o modo de jogo:",
-                    "Menu Principal",
-                    JOptionPane.DEFAULT_OPTION,
-                    JOptionPane.QUESTION_MESSAGE,
-                    null,
-                    options,
-                    options[1]
-            );
-
-            if (choice == JOptionPane.CLOSED_OPTION) {
-                System.exit(0);
-            }
-
-            GameMode selectedMode = (choice == 0) ? GameMode.JOGADOR_vs_JOGADOR : GameMode.JOGADOR_vs_IA;
-            AIDifficulty selectedDifficulty = null;
-
-            if (selectedMode == GameMode.JOGADOR_vs_IA) {
-                String[] difficultyOptions = {"Fácil", "Médio", "Difícil"};
-                int difficultyChoice = JOptionPane.showOptionDialog(null, "Escolha a dificuldade da IA:",
-                        "Dificuldade", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE,
-                        null, difficultyOptions, difficultyOptions[1]);
-
-                if (difficultyChoice == JOptionPane.CLOSED_OPTION) {
-                    System.exit(0);
-                }
-                
-                selectedDifficulty = switch (difficultyChoice) {
-                    case 0 -> AIDifficulty.EASY;
-                    case 2 -> AIDifficulty.HARD;
-                    default -> AIDifficulty.MEDIUM;
-                };
-            }
-            
-            ChessGUI gui = new ChessGUI(selectedMode, selectedDifficulty);
-            gui.setVisible(true);
-        });
-    }
-}
+// ========================= src/view/ChessGUI.java (COM DESTAQUE DE XEQUE) =========================
+package view;
+
+import controller.AIPlayer;
+import controller.AnalysisUpdate;
+import controller.Game;
+import controller.MoveJournal;
+import controller.OpeningBook;
+import controller.SearchHandle;
+import controller.SearchStats;
+import controller.Tablebases;
+import model.board.Move;
+import model.board.Moves;
+import model.board.Position;
+import model.pieces.King;
+import model.pieces.Pawn;
+import model.pieces.Piece;
+
+import javax.swing.*;
+import javax.swing.border.Border;
+import javax.swing.plaf.LayerUI;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.geom.Path2D;
+import controller.AIDifficulty;
+import java.awt.event.ComponentAdapter;
+import java.awt.event.ComponentEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public class ChessGUI extends JFrame {
+
+    private static final Color COR_CASA_CLARA = new Color(240, 217, 181);
+    private static final Color COR_CASA_ESCURA = new Color(181, 136, 99);
+    private static final Color COR_DESTAQUE_SELECIONADA = new Color(30, 144, 255, 200);
+    private static final Color COR_DESTAQUE_LEGAL = new Color(0, 128, 0, 150);
+    private static final Color COR_DESTAQUE_ULTIMA = new Color(255, 255, 0, 100);
+    // NOVO: Cor para o destaque de xeque
+    private static final Color COR_DESTAQUE_XEQUE = new Color(255, 0, 0, 120); // Vermelho translúcido
+    private static final Path DIARIO = Path.of("saves", "partida.jnl");
+    private static final Font FONTE_HISTORICO = new Font(Font.MONOSPACED, Font.PLAIN, 14);
+    // Setas da análise: a da melhor linha mais forte, as outras cada vez mais claras
+    private static final Color[] CORES_SETAS = {
+            new Color(0, 110, 220, 190), new Color(0, 150, 80, 150), new Color(230, 140, 0, 120)};
+    private static final int LINHAS_ANALISE = 3;
+
+    private static final Border BORDA_SELECIONADA = BorderFactory.createLineBorder(COR_DESTAQUE_SELECIONADA, 4);
+    private static final Border BORDA_LEGAL = BorderFactory.createLineBorder(COR_DESTAQUE_LEGAL, 3);
+    private static final Border BORDA_ULTIMA_JOGADA = BorderFactory.createLineBorder(COR_DESTAQUE_ULTIMA, 3);
+    // NOVO: Borda para o destaque de xeque
+    private static final Border BORDA_XEQUE = BorderFactory.createLineBorder(COR_DESTAQUE_XEQUE, 4);
+
+    private final Game game;
+    private transient MoveJournal journal = null; // null = partida não é gravada
+    private final AIPlayer aiPlayer;
+    private final GameMode gameMode;
+    private final JPanel boardPanel;
+    private final JButton[][] squares = new JButton[8][8];
+    private final JLabel statusLabel;
+    private final JTextArea historyTextArea;
+    // Métricas do motor (só no modo contra a IA), atualizadas enquanto ela pensa
+    private final JTextArea engineStatsArea;
+    private final Timer engineStatsTimer;
+    private transient SearchHandle aiSearch = null; // busca da IA em andamento
+    // Modo de análise: IA própria (não disputa a tabela nem a vez com a do jogo) e a última atualização recebida
+    private final JToggleButton analysisToggle = new JToggleButton("Analisar");
+    private final JTextArea analysisArea = new JTextArea(LINHAS_ANALISE + 1, 20);
+    private transient AIPlayer analyzer = null;
+    private transient SearchHandle analysis = null;
+    private transient AnalysisUpdate analysisUpdate = null;
+    private long analyzedKey;
+    private int analyzedPly = -1;
+
+    private Position selectedPosition = null;
+    private List<Position> legalMovesForSelected = new ArrayList<>();
+    private boolean gameOverDialogShown = false;
+
+    public ChessGUI(GameMode mode, AIDifficulty difficulty) {
+        // ... (o construtor continua exatamente igual ao da versão anterior)
+        super("ChessGame");
+        this.game = new Game();
+        this.gameMode = mode;
+
+        if (this.gameMode == GameMode.JOGADOR_vs_IA) {
+            this.aiPlayer = new AIPlayer(difficulty);
+            this.aiPlayer.setThreads(Runtime.getRuntime().availableProcessors());
+            this.aiPlayer.setPonder(difficulty == AIDifficulty.HARD); // pensa no tempo do jogador
+            this.aiPlayer.setOpeningBook(OpeningBook.openIfExists(Path.of("resources", "book.bin")));
+            this.aiPlayer.setTablebases(Tablebases.openIfExists(Path.of("resources", "tb")));
+            setTitle("ChessGame - Jogador vs IA (" + difficulty + ")");
+        } else {
+            this.aiPlayer = null;
+            setTitle("ChessGame - Jogador vs Jogador");
+        }
+
+        setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
+        setLayout(new BorderLayout(10, 10));
+
+        boardPanel = new JPanel(new GridLayout(8, 8));
+        initializeBoardButtons();
+        
+        this.historyTextArea = new JTextArea(10, 20);
+        this.engineStatsArea = new JTextArea(7, 20);
+        this.engineStatsTimer = new Timer(200, e -> updateEngineStats());
+
+        JPanel rightPanel = createRightPanel();
+
+        statusLabel = new JLabel("Vez das Brancas");
+        statusLabel.setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+        statusLabel.setFont(statusLabel.getFont().deriveFont(Font.BOLD));
+
+        add(new JLayer<>(boardPanel, new AnalysisArrows()), BorderLayout.CENTER);
+        add(statusLabel, BorderLayout.SOUTH);
+        add(rightPanel, BorderLayout.EAST);
+        
+        boardPanel.addComponentListener(new ComponentAdapter() {
+            @Override
+            public void componentResized(ComponentEvent e) {
+                refresh();
+            }
+        });
+
+        addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                if (aiPlayer != null) aiPlayer.shutdown();
+                if (analyzer != null) analyzer.shutdown();
+                closeJournal();
+            }
+        });
+
+        setMinimumSize(new Dimension(800, 600));
+        setLocationRelativeTo(null);
+        boolean resumed = openJournal();
+        refresh();
+        if (resumed && gameMode == GameMode.JOGADOR_vs_IA && !game.isGameOver() && !game.whiteToMove()) {
+            SwingUtilities.invokeLater(this::makeAIMove);
+        }
+    }
+
+    // Todo lance vai para o diário; se a última partida ficou gravada, oferece continuar dela
+    private boolean openJournal() {
+        try {
+            Files.createDirectories(DIARIO.getParent());
+            journal = MoveJournal.open(DIARIO);
+        } catch (IOException e) {
+            System.err.println("Partida não será gravada: " + e.getMessage());
+            return false;
+        }
+        if (journal.size() > 0 && JOptionPane.showConfirmDialog(this,
+                "Continuar a partida anterior (" + journal.size() + " lances)?", "ChessGame",
+                JOptionPane.YES_NO_OPTION) == JOptionPane.YES_OPTION) {
+            game.resume(journal);
+            return true;
+        }
+        game.setJournal(journal);
+        return false;
+    }
+
+    private void closeJournal() {
+        if (journal == null) return;
+        try {
+            journal.close();
+        } catch (IOException e) {
+            System.err.println("Erro ao fechar o diário da partida: " + e.getMessage());
+        }
+    }
+    
+    // ... (métodos initializeBoardButtons, createRightPanel, handleSquareClick, etc. continuam iguais)
+    
+    // ALTERADO: Apenas a chamada para o novo método de destaque do rei
+    private void updateBoardAppearance() {
+        Move lastMove = game.getLastMove();
+
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                boolean isLight = (r + c) % 2 == 0;
+                squares[r][c].setBackground(isLight ? COR_CASA_CLARA : COR_CASA_ESCURA);
+                squares[r][c].setBorder(null);
+
+                if (lastMove != null && (new Position(r, c).equals(lastMove.getFrom()) || new Position(r, c).equals(lastMove.getTo()))) {
+                    squares[r][c].setBorder(BORDA_ULTIMA_JOGADA);
+                }
+            }
+        }
+        
+        if (selectedPosition != null) {
+            squares[selectedPosition.getRow()][selectedPosition.getColumn()].setBorder(BORDA_SELECIONADA);
+            for (Position pos : legalMovesForSelected) {
+                squares[pos.getRow()][pos.getColumn()].setBorder(BORDA_LEGAL);
+            }
+        }
+
+        // NOVO: Chama o método para destacar o rei em xeque
+        highlightKingInCheck();
+    }
+
+    // NOVO: Lógica para destacar o rei
+    private void highlightKingInCheck() {
+        if (game.inCheck(game.whiteToMove())) {
+            int sq = game.board().kingSquare(game.whiteToMove());
+            if (sq >= 0) {
+                squares[sq >>> 3][sq & 7].setBorder(BORDA_XEQUE);
+            }
+        }
+    }
+    
+    // ALTERADO: Adiciona a palavra "Xeque!" ao status
+    // Dentro de src/view/ChessGUI.java
+
+// ALTERADO: Adiciona a lógica para mudar a cor do texto em caso de xeque
+private void updateSidePanel() {
+    String statusText;
+    // NOVO: Define a cor padrão do texto
+    statusLabel.setForeground(Color.BLACK); 
+
+    if (game.isGameOver()) {
+        statusText = "XEQUE-MATE! Vitória das " + game.getWinner() + ".";
+        // NOVO: Deixa o texto de vitória em uma cor destacada
+        statusLabel.setForeground(new Color(0, 128, 0)); // Verde escuro
+    } else {
+        String side = game.whiteToMove() ? "Brancas" : "Pretas";
+        statusText = "Vez: " + side;
+        if (game.inCheck(game.whiteToMove())) {
+            statusText += " (Xeque!)";
+            // NOVO: Muda a cor do texto para vermelho
+            statusLabel.setForeground(Color.RED); 
+        }
+    }
+    statusLabel.setText(statusText);
+
+    // O código para atualizar o histórico continua o mesmo
+    StringBuilder sb = new StringBuilder();
+    List<String> hist = game.history();
+    for (int i = 0; i < hist.size(); i++) {
+        if (i % 2 == 0) {
+            sb.append((i / 2) + 1).append(". ");
+        }
+        sb.append(hist.get(i)).append(" ");
+        if (i % 2 == 1) {
+            sb.append("\n");
+        }
+    }
+    historyTextArea.setText(sb.toString());
+    historyTextArea.setCaretPosition(historyTextArea.getDocument().getLength());
+}
+
+    // ... (O restante da classe ChessGUI.java continua exatamente igual)
+    private void initializeBoardButtons() {
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                final int finalR = r;
+                final int finalC = c;
+                JButton button = new JButton();
+                button.setMargin(new Insets(0, 0, 0, 0));
+                button.setFocusPainted(false);
+                button.addActionListener(_ -> handleSquareClick(new Position(finalR, finalC)));
+                squares[r][c] = button;
+                boardPanel.add(button);
+            }
+        }
+    }
+
+    private JPanel createRightPanel() {
+        historyTextArea.setEditable(false);
+        historyTextArea.setFont(FONTE_HISTORICO);
+        JScrollPane historyScroll = new JScrollPane(historyTextArea);
+        historyScroll.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED);
+
+        JPanel rightPanel = new JPanel(new BorderLayout(0, 10));
+        rightPanel.setBorder(BorderFactory.createEmptyBorder(5, 5, 5, 10));
+        
+        JLabel historyLabel = new JLabel("Histórico de Lances:");
+        historyLabel.setFont(historyLabel.getFont().deriveFont(Font.BOLD));
+        historyLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 5, 0));
+
+        rightPanel.add(historyLabel, BorderLayout.NORTH);
+        rightPanel.add(historyScroll, BorderLayout.CENTER);
+
+        JPanel southPanel = new JPanel(new BorderLayout(0, 10));
+        southPanel.add(createAnalysisPanel(), BorderLayout.NORTH);
+        rightPanel.add(southPanel, BorderLayout.SOUTH);
+
+        if (aiPlayer != null) {
+            engineStatsArea.setEditable(false);
+            engineStatsArea.setFont(FONTE_HISTORICO);
+            JPanel statsPanel = new JPanel(new BorderLayout());
+            JLabel statsLabel = new JLabel("Motor:");
+            statsLabel.setFont(statsLabel.getFont().deriveFont(Font.BOLD));
+            statsLabel.setBorder(BorderFactory.createEmptyBorder(0, 0, 5, 0));
+            statsPanel.add(statsLabel, BorderLayout.NORTH);
+            statsPanel.add(engineStatsArea, BorderLayout.CENTER);
+            southPanel.add(statsPanel, BorderLayout.SOUTH);
+            updateEngineStats();
+        }
+        return rightPanel;
+    }
+
+    private JPanel createAnalysisPanel() {
+        analysisArea.setEditable(false);
+        analysisArea.setFont(FONTE_HISTORICO);
+        analysisToggle.setFocusPainted(false);
+        analysisToggle.addActionListener(e -> {
+            if (analysisToggle.isSelected()) updateAnalysis();
+            else stopAnalysis();
+        });
+        JLabel analysisLabel = new JLabel("Análise:");
+        analysisLabel.setFont(analysisLabel.getFont().deriveFont(Font.BOLD));
+        JPanel header = new JPanel(new BorderLayout());
+        header.setBorder(BorderFactory.createEmptyBorder(0, 0, 5, 0));
+        header.add(analysisLabel, BorderLayout.WEST);
+        header.add(analysisToggle, BorderLayout.EAST);
+        JPanel analysisPanel = new JPanel(new BorderLayout());
+        analysisPanel.add(header, BorderLayout.NORTH);
+        analysisPanel.add(analysisArea, BorderLayout.CENTER);
+        return analysisPanel;
+    }
+
+    // (Re)começa a análise se a posição mudou desde a última; não roda enquanto a IA do jogo pensa
+    private void updateAnalysis() {
+        if (!analysisToggle.isSelected()) return;
+        long key = game.board().key();
+        int ply = game.history().size();
+        if (analysis != null && key == analyzedKey && ply == analyzedPly) return;
+        stopAnalysis();
+        if (game.isGameOver() || aiSearch != null) return;
+        if (analyzer == null) {
+            analyzer = new AIPlayer(AIDifficulty.HARD);
+            analyzer.setTablebases(Tablebases.openIfExists(Path.of("resources", "tb")));
+        }
+        analyzedKey = key;
+        analyzedPly = ply;
+        analysisArea.setText("Analisando...");
+        SearchHandle[] handle = new SearchHandle[1];
+        handle[0] = analyzer.analyze(game, LINHAS_ANALISE, update -> SwingUtilities.invokeLater(() -> {
+            // Atualização de uma análise já substituída: descarta
+            if (handle[0] != analysis || !handle[0].isFor(game)) return;
+            analysisUpdate = update;
+            showAnalysis();
+        }));
+        analysis = handle[0];
+    }
+
+    private void stopAnalysis() {
+        if (analysis != null) analysis.cancel(true);
+        analysis = null;
+        analysisUpdate = null;
+        analysisArea.setText("");
+        boardPanel.repaint();
+    }
+
+    // Valores do ponto de vista das brancas, como nos outros programas de xadrez
+    private void showAnalysis() {
+        AnalysisUpdate u = analysisUpdate;
+        StringBuilder sb = new StringBuilder(String.format("Prof. %d, %,d nós, %d ms",
+                u.depth(), u.nodes(), u.elapsedMillis()));
+        int sign = u.whiteToMove() ? 1 : -1;
+        for (AnalysisUpdate.Line line : u.lines()) {
+            String value = line.mateIn() != 0
+                    ? "#" + sign * line.mateIn()
+                    : String.format("%+.2f", sign * line.score() / 100.0);
+            sb.append(String.format("%n%6s  %s", value, line.san()));
+        }
+        analysisArea.setText(sb.toString());
+        analysisArea.setCaretPosition(0);
+        boardPanel.repaint();
+    }
+
+    // Desenha por cima das casas uma seta por linha da análise, da pior para a melhor
+    private final class AnalysisArrows extends LayerUI<JPanel> {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void paint(Graphics g, JComponent c) {
+            super.paint(g, c);
+            AnalysisUpdate u = analysisUpdate;
+            if (u == null) return;
+            Graphics2D g2 = (Graphics2D) g.create();
+            g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            List<AnalysisUpdate.Line> lines = u.lines();
+            for (int i = Math.min(lines.size(), CORES_SETAS.length) - 1; i >= 0; i--) {
+                drawArrow(g2, c, lines.get(i).from(), lines.get(i).to(), CORES_SETAS[i]);
+            }
+            g2.dispose();
+        }
+
+        private void drawArrow(Graphics2D g2, JComponent layer, Position from, Position to, Color color) {
+            Rectangle a = SwingUtilities.convertRectangle(boardPanel,
+                    squares[from.getRow()][from.getColumn()].getBounds(), layer);
+            Rectangle b = SwingUtilities.convertRectangle(boardPanel,
+                    squares[to.getRow()][to.getColumn()].getBounds(), layer);
+            double x0 = a.getCenterX(), y0 = a.getCenterY(), x1 = b.getCenterX(), y1 = b.getCenterY();
+            double length = Math.hypot(x1 - x0, y1 - y0);
+            double width = Math.min(b.width, b.height) / 6.0;
+            double head = width * 2.5;
+            if (length <= head) return;
+            // Seta deitada no eixo x, da origem até o comprimento, depois girada para o lugar
+            Path2D arrow = new Path2D.Double();
+            arrow.moveTo(0, -width / 2);
+            arrow.lineTo(length - head, -width / 2);
+            arrow.lineTo(length - head, -head / 2);
+            arrow.lineTo(length, 0);
+            arrow.lineTo(length - head, head / 2);
+            arrow.lineTo(length - head, width / 2);
+            arrow.lineTo(0, width / 2);
+            arrow.closePath();
+            AffineTransform at = AffineTransform.getTranslateInstance(x0, y0);
+            at.rotate(x1 - x0, y1 - y0);
+            g2.setColor(color);
+            g2.fill(at.createTransformedShape(arrow));
+        }
+    }
+
+    private void updateEngineStats() {
+        SearchStats st = aiPlayer.searchStats();
+        engineStatsArea.setText(String.format(
+                "Profundidade: %d%nNós:          %,d%nNós/s:        %,d%nRamificação:  %.2f%n"
+                        + "Cortes beta:  %.1f%%%nAcertos TT:   %.1f%%%nTempo:        %d ms",
+                st.depth(), st.nodes(), st.nodesPerSecond(), st.branchingFactor(),
+                st.cutoffRate() * 100, st.ttHitRate() * 100, st.elapsedMillis()));
+    }
+
+    private void handleSquareClick(Position clickedPos) {
+        if (game.isGameOver()) return;
+
+        Piece clickedPiece = game.board().get(clickedPos);
+
+        if (selectedPosition == null) {
+            if (clickedPiece != null && clickedPiece.isWhite() == game.whiteToMove()) {
+                selectedPosition = clickedPos;
+                legalMovesForSelected = game.legalMovesFrom(selectedPosition);
+            }
+        }
+        else {
+            if (legalMovesForSelected.contains(clickedPos)) {
+                Character promo = null;
+                Piece movingPiece = game.board().get(selectedPosition);
+                if (movingPiece instanceof Pawn && game.isPromotion(selectedPosition, clickedPos)) {
+                    promo = askForPromotionPiece();
+                }
+                game.move(selectedPosition, clickedPos, promo);
+                clearSelection();
+                
+                if (!game.isGameOver() && gameMode == GameMode.JOGADOR_vs_IA && !game.whiteToMove()) {
+                    makeAIMove();
+                }
+            } 
+            else if (clickedPiece != null && clickedPiece.isWhite() == game.whiteToMove()) {
+                selectedPosition = clickedPos;
+                legalMovesForSelected = game.legalMovesFrom(selectedPosition);
+            } 
+            else {
+                clearSelection();
+            }
+        }
+        refresh();
+    }
+    
+    private void clearSelection() {
+        selectedPosition = null;
+        legalMovesForSelected.clear();
+    }
+
+    private void makeAIMove() {
+        stopAnalysis();
+        setBoardEnabled(false);
+        statusLabel.setText("Vez das Pretas (IA pensando...)");
+
+        engineStatsTimer.start();
+        SearchHandle handle = aiPlayer.findBestMoveAsync(game);
+        aiSearch = handle;
+        handle.whenDone((positions, error) -> SwingUtilities.invokeLater(() -> {
+            // Busca cancelada ou de uma partida já reiniciada: não aplica nada
+            if (handle != aiSearch || !handle.isFor(game)) return;
+            aiSearch = null;
+            engineStatsTimer.stop();
+            updateEngineStats();
+            if (error != null) {
+                error.printStackTrace();
+            } else if (handle.move() != Moves.NONE) {
+                game.move(handle.move()); // com a promoção que a IA escolheu
+                aiPlayer.ponder(game);
+            }
+            setBoardEnabled(true);
+            refresh();
+        }));
+    }
+
+    // Interrompe a IA (busca e ponder) e devolve o tabuleiro ao jogador
+    private void cancelAIMove() {
+        if (aiPlayer == null) return;
+        aiPlayer.cancelSearch();
+        aiSearch = null;
+        engineStatsTimer.stop();
+        setBoardEnabled(true);
+    }
+    
+    private void setBoardEnabled(boolean enabled) {
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                squares[r][c].setEnabled(enabled);
+            }
+        }
+    }
+    
+    private Character askForPromotionPiece() {
+        String[] opts = {"Rainha", "Torre", "Bispo", "Cavalo"};
+        int choice = JOptionPane.showOptionDialog(
+                this, "Escolha a peça para promoção:", "Promoção de Peão",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, opts, opts[0]);
+        return switch (choice) {
+            case 1 -> 'R';
+            case 2 -> 'B';
+            case 3 -> 'N';
+            default -> 'Q';
+        };
+    }
+
+    private void refresh() {
+        updateBoardAppearance();
+        updatePieceIcons();
+        updateSidePanel();
+        updateAnalysis();
+        
+        if (game.isGameOver() && !gameOverDialogShown) {
+            gameOverDialogShown = true;
+            showGameOverDialog();
+        }
+    }
+
+    private void updatePieceIcons() {
+        int iconSize = computeSquareIconSize();
+        for (int r = 0; r < 8; r++) {
+            for (int c = 0; c < 8; c++) {
+                Piece p = game.board().get(new Position(r, c));
+                JButton button = squares[r][c];
+                if (p != null) {
+                    ImageIcon icon = ImageUtil.getPieceIcon(p.isWhite(), p.getSymbol().charAt(0), iconSize);
+                    button.setIcon(icon);
+                } else {
+                    button.setIcon(null);
+                }
+            }
+        }
+    }
+
+    private void showGameOverDialog() {
+        String winner = game.getWinner();
+        String message = "XEQUE-MATE!\nO jogador de peças " + winner + " venceu.";
+        String[] options = {"Jogar Novamente", "Sair"};
+
+        int choice = JOptionPane.showOptionDialog(
+            this, message, "Vitória!",
+            JOptionPane.YES_NO_OPTION, JOptionPane.INFORMATION_MESSAGE,
+            null, options, options[0]
+        );
+
+        if (choice == JOptionPane.YES_OPTION) {
+            resetGame();
+        } else {
+            closeJournal();
+            System.exit(0);
+        }
+    }
+
+    private void resetGame() {
+        cancelAIMove();
+        stopAnalysis();
+        if (aiPlayer != null) aiPlayer.newGame();
+        game.reset();
+        clearSelection();
+        gameOverDialogShown = false;
+        refresh();
+    }
+
+    private int computeSquareIconSize() {
+        int w = boardPanel.getWidth() / 8;
+        int h = boardPanel.getHeight() / 8;
+        int side = Math.min(w, h);
+        return Math.max(24, side - 8);
+    }
+
+    public static void main(String[] args) {
+        try {
+            UIManager.setLookAndFeel(UIManager.getSystemLookAndFeelClassName());
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+
+        SwingUtilities.invokeLater(() -> {
+            String[] options = {"Jogador vs Jogador", "Jogador vs IA"};
+            int choice = JOptionPane.showOptionDialog(
+                    null,
+                    "Escolha o modo de jogo:",
+                    "Menu Principal",
+                    JOptionPane.DEFAULT_OPTION,
+                    JOptionPane.QUESTION_MESSAGE,
+                    null,
+                    options,
+                    options[1]
+            );
+
+            if (choice == JOptionPane.CLOSED_OPTION) {
+                System.exit(0);
+            }
+
+            GameMode selectedMode = (choice == 0) ? GameMode.JOGADOR_vs_JOGADOR : GameMode.JOGADOR_vs_IA;
+            AIDifficulty selectedDifficulty = null;
+
+            if (selectedMode == GameMode.JOGADOR_vs_IA) {
+                String[] difficultyOptions = {"Fácil", "Médio", "Difícil"};
+                int difficultyChoice = JOptionPane.showOptionDialog(null, "Escolha a dificuldade da IA:",
+                        "Dificuldade", JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE,
+                        null, difficultyOptions, difficultyOptions[1]);
+
+                if (difficultyChoice == JOptionPane.CLOSED_OPTION) {
+                    System.exit(0);
+                }
+                
+                selectedDifficulty = switch (difficultyChoice) {
+                    case 0 -> AIDifficulty.EASY;
+                    case 2 -> AIDifficulty.HARD;
+                    default -> AIDifficulty.MEDIUM;
+                };
+            }
+            
+            ChessGUI gui = new ChessGUI(selectedMode, selectedDifficulty);
+            gui.setVisible(true);
+        });
+    }
+}
@@ -1,6 +1,6 @@
-package view;
-
-public enum GameMode {
-    JOGADOR_vs_JOGADOR,
-    JOGADOR_vs_IA
-}
+package view;
+
+public enum GameMode {
+    JOGADOR_vs_JOGADOR,
+    JOGADOR_vs_IA
+}